@@ -0,0 +1,37 @@
+package com.hologramsciences.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ *  Entry point of target/benchmarks.jar, takes the usual JMH command line options.
+ *
+ *  Unless told otherwise on the command line, it adds the gc profiler (allocation rate per operation) and writes the
+ *  results as JSON to benchmark-results.json, so runs can be compared to track regressions:
+ *
+ *    java -jar target/benchmarks.jar OpenRestaurantsBenchmark -p restaurantCount=50,10000
+ *
+ */
+public class BenchmarkRunner {
+    public static void main(final String[] args) throws Exception {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+
+        if (commandLineOptions.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            options.result("benchmark-results.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
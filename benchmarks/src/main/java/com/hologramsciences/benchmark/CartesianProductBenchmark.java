@@ -0,0 +1,84 @@
+package com.hologramsciences.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hologramsciences.Algorithms;
+
+/**
+ *
+ *  Walks a product of 7 lists of 10 ids (10,000,000 tuples) as a parallel stream on a ForkJoinPool of threads workers,
+ *  and once sequentially for reference.  With CartesianProductSpliterator the time should fall close to 1/threads up
+ *  to the number of cores:
+ *
+ *    java -jar target/benchmarks.jar CartesianProductBenchmark -p threads=1,2,4,8
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartesianProductBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<List<Integer>> listOfLists;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(1000 + i);
+        }
+        listOfLists = Collections.nCopies(7, ids);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long parallel() throws Exception {
+        return pool.submit(() -> sumOfTuples(true)).get();
+    }
+
+    @Benchmark
+    public long sequential() {
+        return sumOfTuples(false);
+    }
+
+    private long sumOfTuples(final boolean parallel) {
+        return Algorithms.cartesianProductStream(listOfLists, parallel)
+                .mapToLong(tuple -> {
+                    long sum = 0;
+                    for (final Integer id : tuple) {
+                        sum += id;
+                    }
+                    return sum;
+                })
+                .sum();
+    }
+}
@@ -0,0 +1,84 @@
+package com.hologramsciences.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hologramsciences.CSVRestaurantService;
+import com.hologramsciences.Metrics;
+import com.hologramsciences.OpenHoursBitmapIndex;
+import com.hologramsciences.Restaurant;
+
+/**
+ *
+ *  The cost of the Metrics instrumentation on the fastest instrumented path, CSVRestaurantService.getOpenRestaurants.
+ *
+ *  uninstrumented asks the OpenHoursBitmapIndex behind the service directly, instrumented goes through the service's
+ *  timer and counter.  With metrics=disabled the two should be within noise of each other.
+ *
+ *    java -jar target/benchmarks.jar MetricsBenchmark
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"disabled", "enabled"})
+    public String metrics;
+
+    private CSVRestaurantService csvRestaurantService;
+    private OpenHoursBitmapIndex openHoursIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final List<Restaurant> restaurants = RestaurantDataGenerator.generate(50, 42L);
+        csvRestaurantService = new CSVRestaurantService(restaurants);
+        openHoursIndex = new OpenHoursBitmapIndex(restaurants);
+
+        if (metrics.equals("enabled")) {
+            Metrics.enable();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Metrics.disable();
+        Metrics.reset();
+    }
+
+    @Benchmark
+    public List<Restaurant> uninstrumented() {
+        return openHoursIndex.getOpenRestaurants(DayOfWeek.WEDNESDAY, LocalTime.of(12, 30));
+    }
+
+    @Benchmark
+    public List<Restaurant> instrumented() {
+        return csvRestaurantService.getOpenRestaurants(DayOfWeek.WEDNESDAY, LocalTime.of(12, 30));
+    }
+
+    @Benchmark
+    public long timerStartStop() {
+        final long startNanos = Metrics.CSV_OPEN_RESTAURANTS.start();
+        Metrics.CSV_OPEN_RESTAURANTS.stop(startNanos);
+        return startNanos;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hologramsciences.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hologramsciences.CSVRestaurantService;
+import com.hologramsciences.OpenHoursParser;
+import com.hologramsciences.ResourceLoader;
+import com.hologramsciences.Restaurant;
+
+/**
+ *
+ *  Parses every open hours column of rest_hours.csv per operation, with the StringTokenizer / LocalTime.parse parser
+ *  CSVRestaurantService used before, with OpenHoursParser into a map, and with OpenHoursParser into a reused
+ *  PackedOpenHours.  Run with the gc profiler (the BenchmarkRunner default) to compare bytes allocated per operation.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenHoursParserBenchmark {
+    private final OpenHoursParser.PackedOpenHours packedOpenHours = new OpenHoursParser.PackedOpenHours();
+
+    private List<String> openHoursStrings;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        openHoursStrings = new ArrayList<>();
+        for (final CSVRecord record : CSVFormat.RFC4180.parse(new StringReader(ResourceLoader.readResourceAsString("rest_hours.csv")))) {
+            if (record.size() > 1 && CSVRestaurantService.parse(record).isDefined()) {
+                openHoursStrings.add(record.get(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(final Blackhole blackhole) {
+        for (final String openHoursString : openHoursStrings) {
+            blackhole.consume(tokenizerParseOpenHour(openHoursString));
+        }
+    }
+
+    @Benchmark
+    public void openHoursMap(final Blackhole blackhole) {
+        for (final String openHoursString : openHoursStrings) {
+            blackhole.consume(OpenHoursParser.parseOpenHoursMap(openHoursString));
+        }
+    }
+
+    @Benchmark
+    public void packed(final Blackhole blackhole) {
+        for (final String openHoursString : openHoursStrings) {
+            OpenHoursParser.parse(openHoursString, packedOpenHours);
+            blackhole.consume(packedOpenHours.getPacked(DayOfWeek.SATURDAY));
+        }
+    }
+
+    private static Map<DayOfWeek, Restaurant.OpenHours> tokenizerParseOpenHour(final String openHoursString) {
+        final Map<DayOfWeek, Restaurant.OpenHours> restaurantTimings = new EnumMap<>(DayOfWeek.class);
+        final StringTokenizer tokenizer = new StringTokenizer(openHoursString, ";");
+        while (tokenizer.hasMoreTokens()) {
+            final StringTokenizer perDayTime = new StringTokenizer(tokenizer.nextToken(), "|");
+            final StringTokenizer days = new StringTokenizer(perDayTime.nextToken(), ",");
+            final StringTokenizer timing = new StringTokenizer(perDayTime.nextToken(), "-");
+            final String startTime = timing.nextToken();
+            final String endTime = timing.nextToken();
+            if (startTime.equals(endTime)) {
+                throw new UnsupportedOperationException("Start time and end time are same");
+            }
+            while (days.hasMoreTokens()) {
+                restaurantTimings.put(CSVRestaurantService.getDayOfWeek(days.nextToken()).get(), new Restaurant.OpenHours(LocalTime.parse(startTime), LocalTime.parse(endTime)));
+            }
+        }
+        return restaurantTimings;
+    }
+}
@@ -0,0 +1,104 @@
+package com.hologramsciences.benchmark;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hologramsciences.CSVRestaurantService;
+import com.hologramsciences.ConnectionPool;
+import com.hologramsciences.ConnectionPoolConfig;
+import com.hologramsciences.JooqRestaurantService;
+import com.hologramsciences.Restaurant;
+import com.hologramsciences.SQLRestaurantService;
+import com.hologramsciences.jooq.tables.records.RestaurantsRecord;
+import com.hologramsciences.sql.RestaurantRecord;
+
+/**
+ *
+ *  The same getOpenRestaurants workload against CSVRestaurantService, SQLRestaurantService and JooqRestaurantService,
+ *  over RestaurantDataGenerator data of restaurantCount restaurants.
+ *
+ *  Every restaurantCount and queryTime combination runs in its own fork, so the data is generated and loaded once
+ *  per combination.  Loading 1,000,000 restaurants into H2 takes a while, use -p restaurantCount=... to pick sizes.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class OpenRestaurantsBenchmark {
+
+    public enum QueryTime {
+        MIDNIGHT_WINDOW(DayOfWeek.SATURDAY, LocalTime.of(0, 20)),
+        PEAK_LUNCH(DayOfWeek.WEDNESDAY, LocalTime.of(12, 30)),
+        OFF_HOURS(DayOfWeek.TUESDAY, LocalTime.of(6, 0));
+
+        private final DayOfWeek dayOfWeek;
+        private final LocalTime localTime;
+
+        QueryTime(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+            this.dayOfWeek = dayOfWeek;
+            this.localTime = localTime;
+        }
+    }
+
+    @Param({"50", "10000", "1000000"})
+    public int restaurantCount;
+
+    @Param({"MIDNIGHT_WINDOW", "PEAK_LUNCH", "OFF_HOURS"})
+    public QueryTime queryTime;
+
+    private CSVRestaurantService csvRestaurantService;
+    private ConnectionPool connectionPool;
+    private SQLRestaurantService sqlRestaurantService;
+    private JooqRestaurantService jooqRestaurantService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final List<Restaurant> restaurants = RestaurantDataGenerator.generate(restaurantCount, 42L);
+        csvRestaurantService = new CSVRestaurantService(restaurants);
+
+        connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:open_restaurants_" + restaurantCount + ";DB_CLOSE_DELAY=-1", "sa", "sa"));
+        sqlRestaurantService = new SQLRestaurantService(connectionPool);
+        jooqRestaurantService = new JooqRestaurantService(sqlRestaurantService);
+        RestaurantDataGenerator.load(sqlRestaurantService, restaurants);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionPool.close();
+    }
+
+    @Benchmark
+    public List<Restaurant> csv() {
+        return csvRestaurantService.getOpenRestaurants(queryTime.dayOfWeek, queryTime.localTime);
+    }
+
+    @Benchmark
+    public List<RestaurantRecord> sql() throws SQLException {
+        return sqlRestaurantService.getOpenRestaurants(queryTime.dayOfWeek, queryTime.localTime);
+    }
+
+    @Benchmark
+    public List<RestaurantsRecord> jooq() throws SQLException {
+        return jooqRestaurantService.getOpenRestaurants(queryTime.dayOfWeek, queryTime.localTime);
+    }
+}
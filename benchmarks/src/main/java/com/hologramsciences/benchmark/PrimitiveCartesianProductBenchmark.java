@@ -0,0 +1,80 @@
+package com.hologramsciences.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hologramsciences.Algorithms;
+
+/**
+ *
+ *  The product of lists lists of 10 int ids, with the generic cartesianProductForLists over boxed Integers, into the
+ *  flat int[] of cartesianProductForInts, and summed through the reused tuple of forEachCartesianProduct.  Run with the
+ *  gc profiler (the BenchmarkRunner default) to compare bytes allocated per operation:
+ *
+ *    java -jar target/benchmarks.jar PrimitiveCartesianProductBenchmark
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PrimitiveCartesianProductBenchmark {
+
+    @Param({"4", "6"})
+    public int lists;
+
+    private List<List<Integer>> listOfLists;
+    private int[][] arrays;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        listOfLists = new ArrayList<>();
+        arrays = new int[lists][];
+        for (int i = 0; i < lists; i++) {
+            final List<Integer> ids = new ArrayList<>();
+            arrays[i] = new int[10];
+            for (int j = 0; j < 10; j++) {
+                ids.add(100_000 * i + j);
+                arrays[i][j] = 100_000 * i + j;
+            }
+            listOfLists.add(ids);
+        }
+    }
+
+    @Benchmark
+    public List<List<Integer>> generic() {
+        return Algorithms.cartesianProductForLists(listOfLists);
+    }
+
+    @Benchmark
+    public int[] flatIntArray() {
+        return Algorithms.cartesianProductForInts(arrays);
+    }
+
+    @Benchmark
+    public long intArrayConsumer() {
+        final long[] sum = new long[1];
+        Algorithms.forEachCartesianProduct(arrays, tuple -> {
+            for (final int id : tuple) {
+                sum[0] += id;
+            }
+        });
+        return sum[0];
+    }
+}
@@ -0,0 +1,128 @@
+package com.hologramsciences.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.hologramsciences.ConnectionPool;
+import com.hologramsciences.ConnectionPoolConfig;
+import com.hologramsciences.JooqRestaurantService;
+import com.hologramsciences.LatencyHistogram;
+import com.hologramsciences.QueryExecutor;
+import com.hologramsciences.QueryExecutorConfig;
+import com.hologramsciences.QueryExecutorConfig.ThreadMode;
+import com.hologramsciences.Restaurant;
+import com.hologramsciences.SQLRestaurantService;
+import com.hologramsciences.VirtualThreads;
+
+/**
+ *
+ *  Keeps concurrency getOpenRestaurantsAsync requests outstanding against one database, once per ThreadMode of
+ *  QueryExecutor, and prints the throughput and latency of each:
+ *
+ *    java -cp target/benchmarks.jar com.hologramsciences.benchmark.QueryLoadTest [restaurantCount] [concurrency] [requests] [sql|jooq]
+ *
+ *  The latency of a request runs from its submit to the completion of its future, so it includes the wait for a thread
+ *  and for a connection.  VIRTUAL_PER_QUERY is skipped below Java 21.
+ *
+ *  Unlike the JMH benchmarks this measures a loaded server rather than a single call, run it a few times and compare
+ *  the later runs.
+ *
+ */
+public class QueryLoadTest {
+    private static final int WARMUP_REQUESTS = 20_000;
+
+    public static void main(final String[] args) throws Exception {
+        final int restaurantCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        final int requests = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        final boolean jooq = args.length > 3 && args[3].equals("jooq");
+
+        final List<Restaurant> restaurants = RestaurantDataGenerator.generate(restaurantCount, 42L);
+        final ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig("jdbc:h2:mem:query_load_test;DB_CLOSE_DELAY=-1", "sa", "sa");
+
+        try (final ConnectionPool connectionPool = new ConnectionPool(connectionPoolConfig)) {
+            RestaurantDataGenerator.load(new SQLRestaurantService(connectionPool), restaurants);
+
+            for (final ThreadMode threadMode : ThreadMode.values()) {
+                if (threadMode == ThreadMode.VIRTUAL_PER_QUERY && !VirtualThreads.isAvailable()) {
+                    System.out.println(threadMode + ": skipped, needs Java 21 or later");
+                    continue;
+                }
+
+                final QueryExecutorConfig queryExecutorConfig = QueryExecutorConfig.forPool(connectionPoolConfig)
+                        .withThreadMode(threadMode)
+                        .withQueueCapacity(concurrency);
+
+                try (final QueryExecutor queryExecutor = new QueryExecutor(queryExecutorConfig)) {
+                    final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool, queryExecutor);
+                    final JooqRestaurantService jooqRestaurantService = new JooqRestaurantService(sqlRestaurantService);
+                    final Request request = (dayOfWeek, localTime) -> jooq
+                            ? jooqRestaurantService.getOpenRestaurantsAsync(dayOfWeek, localTime)
+                            : sqlRestaurantService.getOpenRestaurantsAsync(dayOfWeek, localTime);
+
+                    run(request, concurrency, WARMUP_REQUESTS);
+                    final Result result = run(request, concurrency, requests);
+
+                    System.out.println(String.format(
+                            "%s: %d requests, %d failed, %.0f requests/s, latency mean %.2fms p50 %.2fms p99 %.2fms max %.2fms, %s",
+                            threadMode, requests, result.failures, requests / (result.elapsedNanos / 1e9),
+                            result.latency.getMeanNanos() / 1e6,
+                            result.latency.getValueAtPercentile(50) / 1e6,
+                            result.latency.getValueAtPercentile(99) / 1e6,
+                            result.latency.getMaxNanos() / 1e6,
+                            queryExecutor
+                    ));
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        CompletableFuture<?> submit(final DayOfWeek dayOfWeek, final LocalTime localTime);
+    }
+
+    private static final class Result {
+        private final long elapsedNanos;
+        private final long failures;
+        private final LatencyHistogram latency;
+
+        private Result(final long elapsedNanos, final long failures, final LatencyHistogram latency) {
+            this.elapsedNanos = elapsedNanos;
+            this.failures = failures;
+            this.latency = latency;
+        }
+    }
+
+    private static Result run(final Request request, final int concurrency, final int requests) throws InterruptedException {
+        final Random random = new Random(42L);
+        final Semaphore outstanding = new Semaphore(concurrency);
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong failures = new AtomicLong();
+
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final DayOfWeek dayOfWeek = DayOfWeek.of(1 + random.nextInt(7));
+            final LocalTime localTime = LocalTime.ofSecondOfDay(random.nextInt(24 * 60) * 60L);
+
+            outstanding.acquire();
+            final long submitNanos = System.nanoTime();
+            request.submit(dayOfWeek, localTime).whenComplete((restaurants, t) -> {
+                latency.recordSince(submitNanos);
+                if (t != null) {
+                    failures.incrementAndGet();
+                }
+                outstanding.release();
+            });
+        }
+        outstanding.acquire(concurrency);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+
+        return new Result(elapsedNanos, failures.get(), latency);
+    }
+}
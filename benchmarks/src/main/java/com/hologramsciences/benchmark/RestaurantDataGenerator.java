@@ -0,0 +1,89 @@
+package com.hologramsciences.benchmark;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+
+import org.apache.commons.csv.CSVFormat;
+
+import com.hologramsciences.CSVRestaurantService;
+import com.hologramsciences.Restaurant;
+import com.hologramsciences.RestaurantBulkLoader;
+import com.hologramsciences.SQLRestaurantService;
+
+/**
+ *
+ *  Scales the shape of rest_hours.csv to any number of restaurants.
+ *
+ *  Restaurant i copies the open hours of one of the restaurants of rest_hours.csv (round robin), shifted by -60 to +60
+ *  minutes in steps of 30 and with an occasional closed day, so the mix of lunch places, late night places and cross
+ *  midnight spans stays the same at every size.  The same count and seed always generate the same restaurants.
+ *
+ */
+public class RestaurantDataGenerator {
+    private static final int BATCH_SIZE = 10_000;
+
+    public static List<Restaurant> generate(final int restaurantCount, final long seed) throws IOException {
+        final List<Restaurant> templates = new CSVRestaurantService().getAllRestaurants();
+        final Random random = new Random(seed);
+
+        final List<Restaurant> restaurants = new ArrayList<>(restaurantCount);
+        for (int i = 0; i < restaurantCount; i++) {
+            final Restaurant template = templates.get(i % templates.size());
+            final long shiftMinutes = (random.nextInt(5) - 2) * 30L;
+
+            final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+            template.getOpenHoursMap().forEach((dayOfWeek, openHours) -> {
+                if (random.nextInt(20) != 0) {
+                    openHoursMap.put(dayOfWeek, new Restaurant.OpenHours(
+                            openHours.getStartTime().plusMinutes(shiftMinutes),
+                            openHours.getEndTime().plusMinutes(shiftMinutes)
+                    ));
+                }
+            });
+            if (openHoursMap.isEmpty()) {
+                openHoursMap.putAll(template.getOpenHoursMap());
+            }
+
+            restaurants.add(new Restaurant(template.getName() + " #" + i, openHoursMap));
+        }
+        return restaurants;
+    }
+
+    /**
+     *  Creates the schema of sqlRestaurantService's database and inserts the restaurants and their open_hours, with ids 1..n
+     */
+    public static void load(final SQLRestaurantService sqlRestaurantService, final List<Restaurant> restaurants) throws Exception {
+        sqlRestaurantService.initializeSchema();
+        new RestaurantBulkLoader(sqlRestaurantService, BATCH_SIZE).load(restaurants);
+    }
+
+    /**
+     *  The restaurant as a line of rest_hours.csv, with one group per day
+     */
+    public static String toCsvLine(final Restaurant restaurant) {
+        final StringJoiner groups = new StringJoiner(";");
+        restaurant.getOpenHoursMap().forEach((dayOfWeek, openHours) ->
+                groups.add(dayOfWeek.getDisplayName(TextStyle.SHORT, Locale.US) + "|" + openHours.getStartTime() + "-" + openHours.getEndTime())
+        );
+        return CSVFormat.RFC4180.format(restaurant.getName(), groups.toString());
+    }
+
+    /**
+     *  Prints a rest_hours.csv style feed: RestaurantDataGenerator [restaurantCount] [seed]
+     */
+    public static void main(final String[] args) throws IOException {
+        final int restaurantCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        for (final Restaurant restaurant : generate(restaurantCount, seed)) {
+            System.out.println(toCsvLine(restaurant));
+        }
+    }
+}
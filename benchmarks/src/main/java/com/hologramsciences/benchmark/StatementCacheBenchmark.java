@@ -0,0 +1,71 @@
+package com.hologramsciences.benchmark;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hologramsciences.ConnectionPool;
+import com.hologramsciences.ConnectionPoolConfig;
+import com.hologramsciences.SQLRestaurantService;
+import com.hologramsciences.sql.RestaurantRecord;
+
+/**
+ *
+ *  Calls per second of the SQLRestaurantService queries with the PreparedStatement cache turned off (0) and on.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private ConnectionPool connectionPool;
+    private SQLRestaurantService sqlRestaurantService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connectionPool = new ConnectionPool(
+                new ConnectionPoolConfig("jdbc:h2:mem:statement_cache_benchmark;DB_CLOSE_DELAY=-1", "sa", "sa")
+                        .withStatementCacheSize(statementCacheSize)
+        );
+        sqlRestaurantService = new SQLRestaurantService(connectionPool);
+        sqlRestaurantService.initializeDatabase();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionPool.close();
+    }
+
+    @Benchmark
+    public List<RestaurantRecord> getOpenRestaurants() throws SQLException {
+        return sqlRestaurantService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT);
+    }
+
+    @Benchmark
+    public List<RestaurantRecord> getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo() throws SQLException {
+        return sqlRestaurantService.getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(3);
+    }
+}
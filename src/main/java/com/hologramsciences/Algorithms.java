@@ -1,9 +1,24 @@
 package com.hologramsciences;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Algorithms {
+    @FunctionalInterface
+    public interface IntArrayConsumer {
+        void accept(final int[] tuple);
+    }
+
+    @FunctionalInterface
+    public interface LongArrayConsumer {
+        void accept(final long[] tuple);
+    }
+
     /**
      *
      *  Compute the cartesian product of a list of lists of any type T
@@ -44,6 +59,165 @@ public class Algorithms {
         return result;
     }
 
+    /**
+     *
+     *  The tuples of cartesianProductForLists in the same order, computed one at a time as they are asked for, so
+     *  products far too large for the heap can be walked.  See CartesianProductIterator.
+     *
+     */
+    public static <T> Iterator<List<T>> cartesianProductIterator(final List<? extends List<? extends T>> listOfLists) {
+        return new CartesianProductIterator<>(listOfLists, false);
+    }
+
+    /**
+     *  Like cartesianProductIterator, but every tuple is the same reused list, valid until the next call to the iterator
+     */
+    public static <T> Iterator<List<T>> cartesianProductIteratorReusingBuffer(final List<? extends List<? extends T>> listOfLists) {
+        return new CartesianProductIterator<>(listOfLists, true);
+    }
+
+    public static <T> Stream<List<T>> cartesianProductStream(final List<? extends List<? extends T>> listOfLists) {
+        return cartesianProductStream(listOfLists, false);
+    }
+
+    /**
+     *  A parallel stream splits the product into halves of equal numbers of tuples, see CartesianProductSpliterator.
+     *  Products of more than Long.MAX_VALUE tuples fall back to the sequential CartesianProductIterator.
+     */
+    public static <T> Stream<List<T>> cartesianProductStream(final List<? extends List<? extends T>> listOfLists, final boolean parallel) {
+        try {
+            CartesianProductSpliterator.size(listOfLists);
+        } catch (ArithmeticException e) {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cartesianProductIterator(listOfLists), Spliterator.ORDERED | Spliterator.NONNULL), parallel);
+        }
+        return StreamSupport.stream(new CartesianProductSpliterator<>(listOfLists), parallel);
+    }
+
+    /**
+     *
+     *  The tuples of cartesianProductForLists as a list computed on access: size, get(k) and rankOf cost
+     *  O(number of lists) whatever the size of the product.  See CartesianProductList.
+     *
+     */
+    public static <T> CartesianProductList<T> cartesianProductView(final List<? extends List<? extends T>> listOfLists) {
+        return new CartesianProductList<>(listOfLists);
+    }
+
+    /**
+     *
+     *  cartesianProductForLists for int elements, without boxing: the tuples in the same order, written one after the
+     *  other into one array, so tuple r is at [r * arrays.length, (r + 1) * arrays.length).  Throws
+     *  ArithmeticException when that does not fit in an int[].
+     *
+     */
+    public static int[] cartesianProductForInts(final int[]... arrays) {
+        final int width = arrays.length;
+        final int[] product = new int[Math.multiplyExact(width, tupleCount(sizes(arrays)))];
+        forEachCartesianProduct(arrays, new IntArrayConsumer() {
+            private int offset;
+
+            @Override
+            public void accept(final int[] tuple) {
+                System.arraycopy(tuple, 0, product, offset, width);
+                offset += width;
+            }
+        });
+        return product;
+    }
+
+    public static long[] cartesianProductForLongs(final long[]... arrays) {
+        final int width = arrays.length;
+        final long[] product = new long[Math.multiplyExact(width, tupleCount(sizes(arrays)))];
+        forEachCartesianProduct(arrays, new LongArrayConsumer() {
+            private int offset;
+
+            @Override
+            public void accept(final long[] tuple) {
+                System.arraycopy(tuple, 0, product, offset, width);
+                offset += width;
+            }
+        });
+        return product;
+    }
+
+    /**
+     *  Hands every tuple of the product to consumer in the order of cartesianProductForLists, always in the same
+     *  array, which is only valid during the call.  Nothing is allocated per tuple.
+     */
+    public static void forEachCartesianProduct(final int[][] arrays, final IntArrayConsumer consumer) {
+        final int[] indices = new int[arrays.length];
+        final int[] tuple = new int[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            if (arrays[i].length == 0) {
+                return;
+            }
+            tuple[i] = arrays[i][0];
+        }
+        while (true) {
+            consumer.accept(tuple);
+
+            int i = arrays.length - 1;
+            while (i >= 0 && ++indices[i] == arrays[i].length) {
+                indices[i] = 0;
+                tuple[i] = arrays[i][0];
+                i--;
+            }
+            if (i < 0) {
+                return;
+            }
+            tuple[i] = arrays[i][indices[i]];
+        }
+    }
+
+    public static void forEachCartesianProduct(final long[][] arrays, final LongArrayConsumer consumer) {
+        final int[] indices = new int[arrays.length];
+        final long[] tuple = new long[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            if (arrays[i].length == 0) {
+                return;
+            }
+            tuple[i] = arrays[i][0];
+        }
+        while (true) {
+            consumer.accept(tuple);
+
+            int i = arrays.length - 1;
+            while (i >= 0 && ++indices[i] == arrays[i].length) {
+                indices[i] = 0;
+                tuple[i] = arrays[i][0];
+                i--;
+            }
+            if (i < 0) {
+                return;
+            }
+            tuple[i] = arrays[i][indices[i]];
+        }
+    }
+
+    private static int[] sizes(final int[][] arrays) {
+        final int[] sizes = new int[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            sizes[i] = arrays[i].length;
+        }
+        return sizes;
+    }
+
+    private static int[] sizes(final long[][] arrays) {
+        final int[] sizes = new int[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            sizes[i] = arrays[i].length;
+        }
+        return sizes;
+    }
+
+    private static int tupleCount(final int[] sizes) {
+        int count = 1;
+        for (final int size : sizes) {
+            count = Math.multiplyExact(count, size);
+        }
+        return count;
+    }
+
     private static <T> void recursiveCall(int index, List<List<T>> listOfList, List<T> row, List<List<T>> result) {
         if(listOfList.size() > index+1) {
             List<T> subsequentRow = listOfList.get(index);
@@ -69,26 +243,13 @@ public class Algorithms {
      *  1¢ 5¢ 10¢ 25¢ 50¢ 100¢
      *  Assuming you have an unlimited supply of each coin,
      *  implement a method which returns the number of distinct ways to make totalCents
+     *
+     *  See ChangeCounter for other denominations and for counts beyond a long
+     *
+     *  @throws ArithmeticException when the count does not fit in a long, which happens for amounts in the millions
+     *          of cents (earlier versions returned a wrapped-around count), use ChangeCounter.countExact for those
      */
     public static long countNumWaysMakeChange(final int totalCents) {
-        final int[] coins = new int[]{1,5,10,25,50,100};
-        long[][] valueData = new long[coins.length+1][totalCents+1];
-        for(int coinIndex = 0; coinIndex <= coins.length; coinIndex++) {
-            for(int centIndex = 0; centIndex <= totalCents; centIndex++) {
-                if(centIndex == 0) {
-                    valueData[coinIndex][centIndex] = 1;
-                } else if (coinIndex == 0) {
-                    break;
-                } else {
-                    int useTheCoin = centIndex - coins[coinIndex-1];
-                    if(useTheCoin >= 0) {
-                        valueData[coinIndex][centIndex] = valueData[coinIndex][useTheCoin] + valueData[coinIndex - 1][centIndex];
-                    } else {
-                        valueData[coinIndex][centIndex] = valueData[coinIndex - 1][centIndex];
-                    }
-                }
-            }
-        }
-        return valueData[coins.length][totalCents];
+        return ChangeCounter.US_COINS.count(totalCents);
     }
 }
@@ -0,0 +1,215 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.Pair;
+
+/**
+ *
+ *  Keeps a CSVRestaurantService in step with a file in the format of rest_hours.csv.
+ *
+ *  reload reads the file again and compares it line by line with the previous read, by restaurant name and the raw
+ *  open hours text.  Only the added and changed lines are parsed, and only they and the removed names are handed to
+ *  CSVRestaurantService.update, which swaps in the new list and indexes at once.  Restaurants of unchanged lines
+ *  stay the same instances.
+ *
+ *  watch reloads on a daemon thread whenever a WatchService reports the file as created or modified.  A reload which
+ *  fails to read the file keeps the last good data, is reported on System.err and counted in getFailedReloads.
+ *  Writers should move a complete new file over the old one, a reload during an in-place write sees a partial file.
+ *
+ *  As for the resource, a line which does not parse counts as no restaurant, and of lines with the same name the last
+ *  one wins.
+ *
+ */
+public class CSVRestaurantReloader implements AutoCloseable {
+    private final Path file;
+    private final CSVRestaurantService service;
+
+    // restaurant name to open hours text of the last read
+    private Map<String, String> lines;
+
+    private volatile WatchService watchService;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+
+    public static class ReloadResult {
+        private final List<String> added;
+        private final List<String> changed;
+        private final List<String> removed;
+
+        public ReloadResult(final List<String> added, final List<String> changed, final List<String> removed) {
+            this.added = Collections.unmodifiableList(added);
+            this.changed = Collections.unmodifiableList(changed);
+            this.removed = Collections.unmodifiableList(removed);
+        }
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getChanged() {
+            return changed;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "ReloadResult{added=" + added + ", changed=" + changed + ", removed=" + removed + "}";
+        }
+    }
+
+    private CSVRestaurantReloader(final Path file, final Map<String, String> lines) {
+        this.file = file;
+        this.lines = lines;
+
+        final List<Restaurant> restaurants = new ArrayList<>(lines.size());
+        lines.forEach((name, openHours) -> CSVRestaurantService.parse(name, openHours).forEach(restaurants::add));
+        this.service = new CSVRestaurantService(restaurants);
+    }
+
+    public static CSVRestaurantReloader open(final Path file) throws IOException {
+        return new CSVRestaurantReloader(file, readLines(file));
+    }
+
+    public CSVRestaurantService getService() {
+        return service;
+    }
+
+    /**
+     *  Applies the differences between the file and its previous read to the service
+     */
+    public synchronized ReloadResult reload() throws IOException {
+        final Map<String, String> newLines = readLines(file);
+
+        final List<String> added = new ArrayList<>();
+        final List<String> changed = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+        final List<Restaurant> upserts = new ArrayList<>();
+        final List<String> unparsable = new ArrayList<>();
+
+        newLines.forEach((name, openHours) -> {
+            final String previous = lines.get(name);
+            if (!openHours.equals(previous)) {
+                (previous == null ? added : changed).add(name);
+                final Option<Restaurant> restaurant = CSVRestaurantService.parse(name, openHours);
+                if (restaurant.isDefined()) {
+                    upserts.add(restaurant.get());
+                } else {
+                    unparsable.add(name);
+                }
+            }
+        });
+        for (final String name : lines.keySet()) {
+            if (!newLines.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+
+        final List<String> removedNames = new ArrayList<>(removed);
+        removedNames.addAll(unparsable);
+        service.update(upserts, removedNames);
+
+        lines = newLines;
+        reloads.incrementAndGet();
+        return new ReloadResult(added, changed, removed);
+    }
+
+    /**
+     *  Starts reloading on changes of the file, until close
+     */
+    public synchronized void watch() throws IOException {
+        if (watchService != null) {
+            throw new IllegalStateException("Already watching " + file);
+        }
+        final Path directory = file.toAbsolutePath().getParent();
+        final WatchService newWatchService = FileSystems.getDefault().newWatchService();
+        try {
+            directory.register(newWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            newWatchService.close();
+            throw e;
+        }
+        watchService = newWatchService;
+
+        final Thread thread = new Thread(() -> watchLoop(newWatchService), "csv-reloader-" + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop(final WatchService watchService) {
+        final Path fileName = file.getFileName();
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                boolean fileChanged = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    fileChanged |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+                }
+                key.reset();
+
+                if (fileChanged) {
+                    try {
+                        reload();
+                    } catch (IOException | RuntimeException e) {
+                        failedReloads.incrementAndGet();
+                        System.err.println("Reloading " + file + " failed, keeping the previous data: " + e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    public long getFailedReloads() {
+        return failedReloads.get();
+    }
+
+    /**
+     *  Stops watching, the service keeps its data
+     */
+    @Override
+    public void close() throws IOException {
+        final WatchService current = watchService;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private static Map<String, String> readLines(final Path file) throws IOException {
+        final Map<String, String> lines = new LinkedHashMap<>();
+        try (final Stream<Pair<String, String>> stream = ResourceLoader.streamOptionCSV(file, r -> r.size() < 2 ? Option.none() : Option.some(Pair.pair(r.get(0), r.get(1))), statistics -> {})) {
+            stream.forEach(line -> lines.put(line.left(), line.right()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return lines;
+    }
+}
@@ -8,16 +8,38 @@ import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoField;
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.StringTokenizer;
+import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class CSVRestaurantService {
-    private final List<Restaurant> restaurantList;
+    private static final LocalTime AFTER_MIDNIGHT_START = LocalTime.MIDNIGHT;
+    private static final LocalTime AFTER_MIDNIGHT_END   = LocalTime.of(5, 0);
+
+    // replaced as a whole by update, a reader reads it once per call and so sees one version of the data throughout
+    private volatile State state;
+
+    private static final class State {
+        private final List<Restaurant> restaurantList;
+        private final OpenHoursBitmapIndex openHoursIndex;
+        private final OpenHoursIntervalIndex openHoursIntervalIndex;
+        private final long version;
+
+        private State(final List<Restaurant> restaurantList, final OpenHoursBitmapIndex openHoursIndex, final long version) {
+            this.restaurantList = Collections.unmodifiableList(restaurantList);
+            this.openHoursIndex = openHoursIndex;
+            this.openHoursIntervalIndex = new OpenHoursIntervalIndex(restaurantList);
+            this.version = version;
+        }
+    }
 
     /**
      *
@@ -58,7 +80,18 @@ public class CSVRestaurantService {
      */
     public static Option<Restaurant> parse(final CSVRecord r) {
         try {
-            return Option.some(new Restaurant(r.get(0), parseOpenHour(r.get(1))));
+            return parse(r.get(0), r.get(1));
+        } catch (IndexOutOfBoundsException exception) {
+            return Option.none();
+        }
+    }
+
+    /**
+     *  parse for the two columns of a line, e.g. as kept by CSVRestaurantReloader
+     */
+    public static Option<Restaurant> parse(final String name, final String openHoursString) {
+        try {
+            return Option.some(new Restaurant(name, parseOpenHour(openHoursString)));
         } catch (UnsupportedOperationException | IndexOutOfBoundsException exception) {
             return Option.none();
         }
@@ -66,32 +99,87 @@ public class CSVRestaurantService {
 
     /**
      * This is a useful helper method
+     *
+     * Days of one group share a single OpenHours instance, see OpenHoursParser
      */
     public static Map<DayOfWeek, Restaurant.OpenHours> parseOpenHour(final String openHoursString) {
-        Map<DayOfWeek, Restaurant.OpenHours> restaurantTimings = new EnumMap<>(DayOfWeek.class);
-        StringTokenizer tokenizer = new StringTokenizer(openHoursString, ";");
-        while (tokenizer.hasMoreTokens()) {
-            StringTokenizer perDayTime = new StringTokenizer(tokenizer.nextToken(), "|");
-            StringTokenizer days = new StringTokenizer(perDayTime.nextToken(), ",");
-            StringTokenizer timing = new StringTokenizer(perDayTime.nextToken(), "-");
-            String startTme = timing.nextToken();
-            String endTime = timing.nextToken();
-            if(startTme.equals(endTime)) {
-                throw new UnsupportedOperationException("Start time and end time are same");
-            }
-            while(days.hasMoreTokens()) {
-                restaurantTimings.put(getDayOfWeek(days.nextToken()).get(), new Restaurant.OpenHours(LocalTime.parse(startTme), LocalTime.parse(endTime)));
-            }
-        }
-        return restaurantTimings;
+        return OpenHoursParser.parseOpenHoursMap(openHoursString);
     }
 
     public CSVRestaurantService() throws IOException {
-        this.restaurantList = ResourceLoader.parseOptionCSV("rest_hours.csv", CSVRestaurantService::parse);
+        this(ResourceLoader.parseOptionCSV("rest_hours.csv", CSVRestaurantService::parse));
     }
 
+    public CSVRestaurantService(final List<Restaurant> restaurantList) {
+        final List<Restaurant> restaurants = new ArrayList<>(restaurantList);
+        this.state = new State(restaurants, new OpenHoursBitmapIndex(restaurants), 0L);
+    }
+
+    /**
+     *  An unmodifiable snapshot, later updates do not show in it
+     */
     public List<Restaurant> getAllRestaurants() {
-        return restaurantList;
+        return state.restaurantList;
+    }
+
+    /**
+     *  Starts at 0 and grows with every update which changed something, see OpenRestaurantsCache.of
+     */
+    public long getDataVersion() {
+        return state.version;
+    }
+
+    /**
+     *
+     *  Replaces the restaurants of the same name as the upserts, appends the upserts of new names, and removes the
+     *  restaurants named in removedNames.  Returns whether anything changed.
+     *
+     *  The new list and indexes are built next to the current ones and swapped in at once, so readers are never
+     *  blocked and see either all or none of an update.  Without removals the OpenHoursBitmapIndex is updated for the
+     *  replaced and appended restaurants only (see OpenHoursBitmapIndex.withRestaurants), removals shift the positions
+     *  of the following restaurants and rebuild it.  The OpenHoursIntervalIndex is a static tree and is always rebuilt.
+     *
+     *  Updates are serialized with each other.
+     *
+     */
+    public synchronized boolean update(final Collection<Restaurant> upserts, final Collection<String> removedNames) {
+        if (upserts.isEmpty() && removedNames.isEmpty()) {
+            return false;
+        }
+
+        final State current = state;
+        final List<Restaurant> restaurants = new ArrayList<>(current.restaurantList);
+        final Map<String, Integer> indexByName = new HashMap<>(restaurants.size() * 2);
+        for (int i = restaurants.size() - 1; i >= 0; i--) {
+            indexByName.put(restaurants.get(i).getName(), i);
+        }
+
+        final Map<Integer, Restaurant> replacements = new LinkedHashMap<>();
+        for (final Restaurant restaurant : upserts) {
+            final Integer index = indexByName.get(restaurant.getName());
+            if (index == null) {
+                indexByName.put(restaurant.getName(), restaurants.size());
+                replacements.put(restaurants.size(), restaurant);
+                restaurants.add(restaurant);
+            } else {
+                replacements.put(index, restaurant);
+                restaurants.set(index, restaurant);
+            }
+        }
+
+        final Set<String> removed = new HashSet<>(removedNames);
+        final boolean removedAny = !removed.isEmpty() && restaurants.removeIf(restaurant -> removed.contains(restaurant.getName()));
+        if (replacements.isEmpty() && !removedAny) {
+            // only names that are not there, keep the state and its version
+            return false;
+        }
+
+        final OpenHoursBitmapIndex openHoursIndex = removedAny
+                ? new OpenHoursBitmapIndex(restaurants)
+                : current.openHoursIndex.withRestaurants(replacements);
+
+        state = new State(restaurants, openHoursIndex, current.version + 1);
+        return true;
     }
 
     /**
@@ -118,21 +206,52 @@ public class CSVRestaurantService {
      *
      */
     public List<Restaurant> getOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) {
-        return getAllRestaurants().stream().filter(o -> {
-            if (localTime.compareTo(LocalTime.parse("00:00")) >= 0 && localTime.compareTo(LocalTime.parse("05:00")) <= 0) {
-                Restaurant.OpenHours openHours = o.getOpenHoursMap().get(dayOfWeek.minus(1));
-                return openHours != null && openHours.spansMidnight() && (openHours.getStartTime().compareTo(localTime) <= 0 || openHours.getEndTime().compareTo(localTime) >= 0);
-            } else {
-                Restaurant.OpenHours openHours = o.getOpenHoursMap().get(dayOfWeek);
-                return openHours != null && openHours.getStartTime().compareTo(localTime) <= 0 && openHours.getEndTime().compareTo(localTime) >= 0;
-            }
-        }).collect(Collectors.toList());
+        final long startNanos = Metrics.CSV_OPEN_RESTAURANTS.start();
+        final List<Restaurant> restaurants = state.openHoursIndex.getOpenRestaurants(dayOfWeek, localTime);
+        Metrics.CSV_OPEN_RESTAURANTS.stop(startNanos);
+        Metrics.CSV_OPEN_RESTAURANTS_RETURNED.add(restaurants.size());
+        return restaurants;
+    }
+
+    /**
+     *  The open logic described on getOpenRestaurants, evaluated for a single restaurant.
+     *
+     *  getOpenRestaurants answers from an OpenHoursBitmapIndex built from this logic (see OpenHoursSlots).
+     */
+    public static boolean isOpen(final Restaurant restaurant, final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        if (localTime.compareTo(AFTER_MIDNIGHT_START) >= 0 && localTime.compareTo(AFTER_MIDNIGHT_END) <= 0) {
+            final Restaurant.OpenHours openHours = restaurant.getOpenHoursMap().get(dayOfWeek.minus(1));
+            return openHours != null && openHours.spansMidnight() && (openHours.getStartTime().compareTo(localTime) <= 0 || openHours.getEndTime().compareTo(localTime) >= 0);
+        } else {
+            final Restaurant.OpenHours openHours = restaurant.getOpenHoursMap().get(dayOfWeek);
+            return openHours != null && openHours.getStartTime().compareTo(localTime) <= 0 && openHours.getEndTime().compareTo(localTime) >= 0;
+        }
     }
 
     public List<Restaurant> getOpenRestaurantsForLocalDateTime(final LocalDateTime localDateTime) {
         return getOpenRestaurants(localDateTime.getDayOfWeek(), localDateTime.toLocalTime());
     }
 
+    /**
+     *
+     *  Returns the restaurants which getOpenRestaurants reports as open for at least one instant between from and to (both inclusive).
+     *
+     *  Windows of a week or longer cover every instant of the week.
+     *
+     */
+    public List<Restaurant> getRestaurantsOpenAnytimeBetween(final LocalDateTime from, final LocalDateTime to) {
+        return state.openHoursIntervalIndex.getRestaurantsOpenAnytimeBetween(from, to);
+    }
+
+    /**
+     *
+     *  Returns the restaurants which getOpenRestaurants reports as open for every instant between from and to (both inclusive).
+     *
+     */
+    public List<Restaurant> getRestaurantsOpenThroughout(final LocalDateTime from, final LocalDateTime to) {
+        return state.openHoursIntervalIndex.getRestaurantsOpenThroughout(from, to);
+    }
+
     public static Option<DayOfWeek> getDayOfWeek(final String s) {
 
         switch (s) {
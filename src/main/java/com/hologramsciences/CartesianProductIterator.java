@@ -0,0 +1,97 @@
+package com.hologramsciences;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ *
+ *  Walks the cartesian product of Algorithms.cartesianProductForLists lazily, in the same order: the last list varies
+ *  fastest.
+ *
+ *  The position is an odometer of one index per list, so memory does not grow with the number of tuples.  An empty
+ *  list gives no tuples, no lists give a single empty tuple.
+ *
+ *  With reuseBuffer every next returns the same unmodifiable tuple, updated in place for the positions whose index
+ *  moved, and nothing is allocated per tuple.  That tuple is only valid until the following call to hasNext or next,
+ *  copy it to keep it.  Without reuseBuffer every tuple is a list of its own.
+ *
+ */
+public class CartesianProductIterator<T> implements Iterator<List<T>> {
+    private final List<? extends T>[] lists;
+    private final int[] indices;
+    private final Object[] buffer;
+    private final boolean reuseBuffer;
+    private final List<T> tuple;
+
+    private boolean hasNext;
+    private boolean pendingAdvance;
+
+    public CartesianProductIterator(final List<? extends List<? extends T>> listOfLists, final boolean reuseBuffer) {
+        this.lists = CartesianProductList.randomAccessLists(listOfLists);
+        this.indices = new int[lists.length];
+        this.buffer = new Object[lists.length];
+        this.reuseBuffer = reuseBuffer;
+        this.tuple = new Tuple();
+
+        this.hasNext = true;
+        for (int i = 0; i < lists.length; i++) {
+            if (lists[i].isEmpty()) {
+                hasNext = false;
+                break;
+            }
+            buffer[i] = lists[i].get(0);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pendingAdvance) {
+            pendingAdvance = false;
+            advance();
+        }
+        return hasNext;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        pendingAdvance = true;
+        return reuseBuffer ? tuple : (List<T>) Arrays.asList(buffer.clone());
+    }
+
+    private void advance() {
+        for (int i = lists.length - 1; i >= 0; i--) {
+            final List<? extends T> list = lists[i];
+            if (++indices[i] < list.size()) {
+                buffer[i] = list.get(indices[i]);
+                return;
+            }
+            indices[i] = 0;
+            buffer[i] = list.get(0);
+        }
+        hasNext = false;
+    }
+
+    private final class Tuple extends AbstractList<T> implements RandomAccess {
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(final int index) {
+            if (index < 0 || index >= buffer.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + buffer.length);
+            }
+            return (T) buffer[index];
+        }
+
+        @Override
+        public int size() {
+            return buffer.length;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.hologramsciences;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ *
+ *  An unmodifiable view of the tuples of Algorithms.cartesianProductForLists, in the same order, which computes a
+ *  tuple only when it is asked for.
+ *
+ *  The rank of a tuple is its position in that order, the indices of its elements read as the digits of a mixed radix
+ *  number whose last digit has the base of the last list.  get unranks, rankOf ranks, both in O(number of lists), so
+ *  a page or a sample of a product too large to build costs as much as the tuples it returns.
+ *
+ *  Products can be larger than an int or a long: size reports at most Integer.MAX_VALUE like any List, getSize is
+ *  exact when it fits in a long, and getBigSize, get(BigInteger) and bigRankOf work for any product.
+ *
+ */
+public class CartesianProductList<T> extends AbstractList<List<T>> implements RandomAccess {
+    private final List<? extends T>[] lists;
+    private final BigInteger bigSize;
+
+    // per list, the element to its first index, built by the first rankOf
+    private volatile Map<Object, Integer>[] indexOfElement;
+
+    public CartesianProductList(final List<? extends List<? extends T>> listOfLists) {
+        this.lists = randomAccessLists(listOfLists);
+
+        BigInteger size = BigInteger.ONE;
+        for (final List<? extends T> list : lists) {
+            size = size.multiply(BigInteger.valueOf(list.size()));
+        }
+        this.bigSize = size;
+    }
+
+    /**
+     *  The number of tuples, or Integer.MAX_VALUE when there are more
+     */
+    @Override
+    public int size() {
+        return bigSize.bitLength() < Integer.SIZE ? bigSize.intValue() : Integer.MAX_VALUE;
+    }
+
+    /**
+     *  The number of tuples, throws ArithmeticException when it does not fit in a long
+     */
+    public long getSize() {
+        if (bigSize.bitLength() >= Long.SIZE) {
+            throw new ArithmeticException("More than Long.MAX_VALUE tuples: " + bigSize);
+        }
+        return bigSize.longValue();
+    }
+
+    public BigInteger getBigSize() {
+        return bigSize;
+    }
+
+    @Override
+    public List<T> get(final int rank) {
+        return get((long) rank);
+    }
+
+    public List<T> get(final long rank) {
+        if (rank < 0 || BigInteger.valueOf(rank).compareTo(bigSize) >= 0) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + bigSize);
+        }
+        final int[] indices = new int[lists.length];
+        unrank(lists, rank, indices);
+        return tuple(indices);
+    }
+
+    public List<T> get(final BigInteger rank) {
+        if (rank.signum() < 0 || rank.compareTo(bigSize) >= 0) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + bigSize);
+        }
+        if (rank.bitLength() < Long.SIZE) {
+            return get(rank.longValue());
+        }
+        final int[] indices = new int[lists.length];
+        BigInteger remaining = rank;
+        for (int i = lists.length - 1; i >= 0; i--) {
+            final BigInteger[] quotientAndRemainder = remaining.divideAndRemainder(BigInteger.valueOf(lists[i].size()));
+            indices[i] = quotientAndRemainder[1].intValue();
+            remaining = quotientAndRemainder[0];
+        }
+        return tuple(indices);
+    }
+
+    /**
+     *  The rank of the tuple, -1 when it is not part of the product.  With repeated elements in a list the first
+     *  occurrence counts.  Throws ArithmeticException when the rank does not fit in a long, see bigRankOf.
+     */
+    public long rankOf(final List<?> tuple) {
+        final BigInteger rank = bigRankOf(tuple);
+        if (rank.bitLength() >= Long.SIZE) {
+            throw new ArithmeticException("Rank does not fit in a long: " + rank);
+        }
+        return rank.longValue();
+    }
+
+    /**
+     *  rankOf for any product, BigInteger.ONE.negate() when the tuple is not part of it
+     */
+    public BigInteger bigRankOf(final List<?> tuple) {
+        final int[] indices = indicesOf(tuple);
+        if (indices == null) {
+            return BigInteger.ONE.negate();
+        }
+        if (bigSize.bitLength() < Long.SIZE) {
+            return BigInteger.valueOf(rank(lists, indices));
+        }
+        BigInteger rank = BigInteger.ZERO;
+        for (int i = 0; i < lists.length; i++) {
+            rank = rank.multiply(BigInteger.valueOf(lists[i].size())).add(BigInteger.valueOf(indices[i]));
+        }
+        return rank;
+    }
+
+    /**
+     *  The tuples of ranks fromRank (inclusive) to toRank (exclusive), unranking only the first one
+     */
+    public List<List<T>> getRange(final long fromRank, final long toRank) {
+        if (fromRank < 0 || fromRank > toRank || BigInteger.valueOf(toRank).compareTo(bigSize) > 0) {
+            throw new IndexOutOfBoundsException("Ranks: " + fromRank + " to " + toRank + ", Size: " + bigSize);
+        }
+        final List<List<T>> tuples = new ArrayList<>(Math.toIntExact(toRank - fromRank));
+        new CartesianProductSpliterator<T>(lists, fromRank, toRank).forEachRemaining(tuples::add);
+        return tuples;
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        if (!(o instanceof List)) {
+            return -1;
+        }
+        final BigInteger rank = bigRankOf((List<?>) o);
+        return rank.bitLength() < Integer.SIZE ? rank.intValue() : -1;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof List && indicesOf((List<?>) o) != null;
+    }
+
+    @Override
+    public Iterator<List<T>> iterator() {
+        return new CartesianProductIterator<>(Arrays.asList(lists), false);
+    }
+
+    @Override
+    public Spliterator<List<T>> spliterator() {
+        if (bigSize.bitLength() < Long.SIZE) {
+            return new CartesianProductSpliterator<>(Arrays.asList(lists));
+        }
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     *  Writes the indices of the tuple of that rank into indices, one per list
+     */
+    static void unrank(final List<?>[] lists, final long rank, final int[] indices) {
+        long remaining = rank;
+        for (int i = lists.length - 1; i >= 0; i--) {
+            final int size = lists[i].size();
+            indices[i] = (int) (remaining % size);
+            remaining /= size;
+        }
+    }
+
+    static long rank(final List<?>[] lists, final int[] indices) {
+        long rank = 0;
+        for (int i = 0; i < lists.length; i++) {
+            rank = rank * lists[i].size() + indices[i];
+        }
+        return rank;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> List<? extends T>[] randomAccessLists(final List<? extends List<? extends T>> listOfLists) {
+        final List<? extends T>[] lists = new List[listOfLists.size()];
+        for (int i = 0; i < lists.length; i++) {
+            final List<? extends T> list = listOfLists.get(i);
+            lists[i] = list instanceof RandomAccess ? list : new ArrayList<>(list);
+        }
+        return lists;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> tuple(final int[] indices) {
+        final Object[] values = new Object[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            values[i] = lists[i].get(indices[i]);
+        }
+        return (List<T>) Arrays.asList(values);
+    }
+
+    private int[] indicesOf(final List<?> tuple) {
+        if (tuple.size() != lists.length) {
+            return null;
+        }
+        final Map<Object, Integer>[] indexOf = indexOfElement();
+        final int[] indices = new int[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            final Integer index = indexOf[i].get(tuple.get(i));
+            if (index == null) {
+                return null;
+            }
+            indices[i] = index;
+        }
+        return indices;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<Object, Integer>[] indexOfElement() {
+        Map<Object, Integer>[] indexOf = indexOfElement;
+        if (indexOf == null) {
+            indexOf = new Map[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                indexOf[i] = new HashMap<>(lists[i].size() * 2);
+                for (int j = lists[i].size() - 1; j >= 0; j--) {
+                    indexOf[i].put(lists[i].get(j), j);
+                }
+            }
+            indexOfElement = indexOf;
+        }
+        return indexOf;
+    }
+}
@@ -0,0 +1,129 @@
+package com.hologramsciences;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ *
+ *  A Spliterator over the tuples of Algorithms.cartesianProductForLists, in the same order, for parallel streams.
+ *
+ *  Every tuple has a rank, its position in that order: the indices of its elements read as the digits of a mixed
+ *  radix number whose last digit has the base of the last list.  A spliterator covers a range of ranks and trySplit
+ *  hands off exactly the first half of it, so the splits are balanced whatever the sizes of the lists.  A spliterator
+ *  unranks the start of its range into an odometer of indices when it starts, and shares nothing with the others.
+ *
+ *  The number of tuples has to fit in a long, see CartesianProductIterator for larger products.
+ *
+ */
+public class CartesianProductSpliterator<T> implements Spliterator<List<T>> {
+    private final List<? extends T>[] lists;
+    private long origin;
+    private final long fence;
+
+    // the indices and elements of the tuple of rank origin, null until traversal starts
+    private int[] indices;
+    private Object[] values;
+
+    public CartesianProductSpliterator(final List<? extends List<? extends T>> listOfLists) {
+        this(CartesianProductList.randomAccessLists(listOfLists), 0L, size(listOfLists));
+    }
+
+    CartesianProductSpliterator(final List<? extends T>[] lists, final long origin, final long fence) {
+        this.lists = lists;
+        this.origin = origin;
+        this.fence = fence;
+    }
+
+    /**
+     *  The number of tuples, throws ArithmeticException when it does not fit in a long
+     */
+    public static long size(final List<? extends List<?>> listOfLists) {
+        long size = 1L;
+        for (final List<?> list : listOfLists) {
+            size = Math.multiplyExact(size, list.size());
+        }
+        return size;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super List<T>> action) {
+        if (origin >= fence) {
+            return false;
+        }
+        start();
+        action.accept(tuple());
+        origin++;
+        if (origin < fence) {
+            advance();
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super List<T>> action) {
+        if (origin >= fence) {
+            return;
+        }
+        start();
+        while (true) {
+            action.accept(tuple());
+            if (++origin >= fence) {
+                return;
+            }
+            advance();
+        }
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        final long middle = origin + (fence - origin) / 2;
+        if (middle == origin) {
+            return null;
+        }
+        final Spliterator<List<T>> prefix = new CartesianProductSpliterator<>(lists, origin, middle);
+        origin = middle;
+        indices = null;
+        values = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+
+    private void start() {
+        if (indices == null) {
+            indices = new int[lists.length];
+            values = new Object[lists.length];
+            CartesianProductList.unrank(lists, origin, indices);
+            for (int i = 0; i < lists.length; i++) {
+                values[i] = lists[i].get(indices[i]);
+            }
+        }
+    }
+
+    private void advance() {
+        for (int i = lists.length - 1; i >= 0; i--) {
+            final List<? extends T> list = lists[i];
+            if (++indices[i] < list.size()) {
+                values[i] = list.get(indices[i]);
+                return;
+            }
+            indices[i] = 0;
+            values[i] = list.get(0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> tuple() {
+        return (List<T>) Arrays.asList(values.clone());
+    }
+}
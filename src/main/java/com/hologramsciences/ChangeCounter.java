@@ -0,0 +1,122 @@
+package com.hologramsciences;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ *
+ *  Counts the distinct ways to make an amount out of an unlimited supply of coins of the given denominations, see
+ *  Algorithms.countNumWaysMakeChange.
+ *
+ *  A single array ways[0..total] is rolled over the denominations: after a coin c, ways[v] += ways[v - c] for v
+ *  from c up, which counts the ways of making v out of the coins so far.  Memory is one long per cent of the amount,
+ *  time is one addition per denomination and cent.
+ *
+ *  count fails with ArithmeticException once a count no longer fits in a long.  countModulo counts modulo any
+ *  modulus up to 2^62.  countExact counts exactly, of any size: when a long overflows it counts modulo as many primes
+ *  just above 2^61 as the result can need, one after the other in the same array, and combines the remainders with
+ *  the Chinese remainder theorem.
+ *
+ */
+public class ChangeCounter {
+    public static final ChangeCounter US_COINS = new ChangeCounter(1, 5, 10, 25, 50, 100);
+
+    private static final long MAXIMUM_MODULUS = 1L << 62;
+    private static final BigInteger FIRST_PRIME = BigInteger.ONE.shiftLeft(61);
+
+    // distinct and ascending
+    private final int[] denominations;
+
+    public ChangeCounter(final int... denominations) {
+        this.denominations = Arrays.stream(denominations).distinct().sorted().toArray();
+        if (this.denominations.length > 0 && this.denominations[0] < 1) {
+            throw new IllegalArgumentException("Denominations must be positive: " + Arrays.toString(denominations));
+        }
+    }
+
+    public int[] getDenominations() {
+        return denominations.clone();
+    }
+
+    /**
+     *  Throws ArithmeticException when the count, or the count for a smaller amount, does not fit in a long
+     */
+    public long count(final int total) {
+        final long[] ways = newWays(total);
+        for (final int coin : denominations) {
+            for (int value = coin; value <= total; value++) {
+                ways[value] = Math.addExact(ways[value], ways[value - coin]);
+            }
+        }
+        return ways[total];
+    }
+
+    /**
+     *  The count modulo modulus, for a modulus from 1 to 2^62
+     */
+    public long countModulo(final int total, final long modulus) {
+        if (modulus < 1 || modulus > MAXIMUM_MODULUS) {
+            throw new IllegalArgumentException("modulus must be between 1 and 2^62: " + modulus);
+        }
+        return countModulo(newWays(total), total, modulus);
+    }
+
+    public BigInteger countExact(final int total) {
+        try {
+            return BigInteger.valueOf(count(total));
+        } catch (ArithmeticException e) {
+            // fall through to the remainders
+        }
+
+        final BigInteger bound = upperBound(total);
+        final long[] ways = new long[total + 1];
+        BigInteger modulus = BigInteger.ONE;
+        BigInteger count = BigInteger.ZERO;
+        BigInteger prime = FIRST_PRIME;
+        while (modulus.compareTo(bound) <= 0) {
+            prime = prime.nextProbablePrime();
+            Arrays.fill(ways, 0L);
+            ways[0] = 1L;
+            final BigInteger remainder = BigInteger.valueOf(countModulo(ways, total, prime.longValue()));
+
+            // count stays the one value below modulus with the remainders so far, extend it to modulus * prime
+            final BigInteger step = remainder.subtract(count).multiply(modulus.modInverse(prime)).mod(prime);
+            count = count.add(modulus.multiply(step));
+            modulus = modulus.multiply(prime);
+        }
+        return count;
+    }
+
+    private long countModulo(final long[] ways, final int total, final long modulus) {
+        ways[0] %= modulus;
+        for (final int coin : denominations) {
+            for (int value = coin; value <= total; value++) {
+                // both below 2^62, so the sum does not overflow
+                final long sum = ways[value] + ways[value - coin];
+                ways[value] = sum >= modulus ? sum - modulus : sum;
+            }
+        }
+        return ways[total];
+    }
+
+    /**
+     *  A number of coins of every denomination but the smallest leaves at most one way to pay the rest, so the count
+     *  is at most the product of (total / denomination + 1) over the other denominations
+     */
+    private BigInteger upperBound(final int total) {
+        BigInteger bound = BigInteger.ONE;
+        for (int i = 1; i < denominations.length; i++) {
+            bound = bound.multiply(BigInteger.valueOf(total / denominations[i] + 1));
+        }
+        return bound;
+    }
+
+    private static long[] newWays(final int total) {
+        if (total < 0) {
+            throw new IllegalArgumentException("total must not be negative: " + total);
+        }
+        final long[] ways = new long[total + 1];
+        ways[0] = 1L;
+        return ways;
+    }
+}
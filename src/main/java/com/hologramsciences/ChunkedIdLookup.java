@@ -0,0 +1,210 @@
+package com.hologramsciences;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ *
+ *  Looks up rows for any number of ids with one statement text, so H2 parses it once and the StatementCache of each
+ *  pooled connection keeps it prepared.
+ *
+ *  The distinct ids are split into chunks of chunkSize, every chunk is bound as a single array parameter of an
+ *  "id = any(?)" query, which H2 answers from the primary key index.  The chunks run in parallel, each on a pooled
+ *  connection of its own: lookup on the calling thread and a window of helpers on a QueryExecutor, lookupAsync all
+ *  on the QueryExecutor.
+ *
+ *  The rows come back in the order of the first occurrence of their id among the ids, ids without a row are left out.
+ *
+ */
+public class ChunkedIdLookup {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    @FunctionalInterface
+    public interface ChunkQuery<T> {
+        List<T> query(final Long[] ids) throws SQLException;
+    }
+
+    private ChunkedIdLookup() {
+    }
+
+    /**
+     *  Runs the chunks on the calling thread and on up to parallelism - 1 helpers on the QueryExecutor, each taking
+     *  the next chunk not yet taken once it is done with one, so at most parallelism chunks are in flight whatever
+     *  their number.  A helper the QueryExecutor rejects leaves its share to the others, and the timeout of the
+     *  QueryExecutor does not apply.  The calling thread only waits for chunks a helper is already running, so a
+     *  lookup may itself run on the QueryExecutor.  A failed chunk or an interrupt stops the chunks not yet started.
+     *
+     *  A lookup of a single chunk runs on the calling thread.
+     */
+    public static <T> List<T> lookup(final QueryExecutor queryExecutor, final Collection<Long> ids, final int chunkSize, final ChunkQuery<T> chunkQuery, final ToLongFunction<T> idOf) throws SQLException {
+        final List<Long[]> chunks = chunks(ids, chunkSize);
+        if (chunks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (chunks.size() == 1) {
+            return inIdOrder(chunks.get(0), chunkQuery.query(chunks.get(0)), idOf);
+        }
+
+        final BlockingLookup<T> lookup = new BlockingLookup<>(chunks, chunkQuery, idOf);
+        final int helperCount = Math.min(queryExecutor.getConfig().getParallelism(), chunks.size()) - 1;
+        for (int i = 0; i < helperCount; i++) {
+            // a helper which starts late finds no chunk left and returns
+            queryExecutor.submit(lookup::runChunks, Duration.ZERO);
+        }
+        lookup.runChunks();
+        return lookup.await();
+    }
+
+    /**
+     *  Cancelling the result cancels the chunks still waiting or running
+     */
+    public static <T> CompletableFuture<List<T>> lookupAsync(final QueryExecutor queryExecutor, final Collection<Long> ids, final int chunkSize, final ChunkQuery<T> chunkQuery, final ToLongFunction<T> idOf) {
+        return lookupAsync(queryExecutor, chunks(ids, chunkSize), chunkQuery, idOf);
+    }
+
+    private static <T> CompletableFuture<List<T>> lookupAsync(final QueryExecutor queryExecutor, final List<Long[]> chunks, final ChunkQuery<T> chunkQuery, final ToLongFunction<T> idOf) {
+        final List<CompletableFuture<List<T>>> chunkResults = new ArrayList<>(chunks.size());
+        for (final Long[] chunk : chunks) {
+            chunkResults.add(queryExecutor.submit(() -> inIdOrder(chunk, chunkQuery.query(chunk), idOf)));
+        }
+
+        final CompletableFuture<List<T>> result = CompletableFuture.allOf(chunkResults.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            final List<T> rows = new ArrayList<>();
+            for (final CompletableFuture<List<T>> chunkResult : chunkResults) {
+                rows.addAll(chunkResult.join());
+            }
+            return rows;
+        });
+        result.whenComplete((rows, t) -> {
+            if (t != null) {
+                chunkResults.forEach(chunkResult -> chunkResult.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    static List<Long[]> chunks(final Collection<Long> ids, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+
+        final List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        final List<Long[]> chunks = new ArrayList<>((distinctIds.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            chunks.add(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())).toArray(new Long[0]));
+        }
+        return chunks;
+    }
+
+    private static <T> List<T> inIdOrder(final Long[] ids, final List<T> rows, final ToLongFunction<T> idOf) {
+        final Map<Long, T> rowsById = new HashMap<>(rows.size() * 2);
+        for (final T row : rows) {
+            rowsById.put(idOf.applyAsLong(row), row);
+        }
+
+        final List<T> ordered = new ArrayList<>(rows.size());
+        for (final Long id : ids) {
+            final T row = rowsById.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     *  The chunks of a blocking lookup, taken one at a time by whichever thread is free.  After a failure the chunks
+     *  left are only counted down, so the lookup ends as soon as the running ones are done.
+     */
+    private static final class BlockingLookup<T> {
+        private final List<Long[]> chunks;
+        private final ChunkQuery<T> chunkQuery;
+        private final ToLongFunction<T> idOf;
+
+        private final List<List<T>> chunkResults;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final CountDownLatch chunksDone;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private BlockingLookup(final List<Long[]> chunks, final ChunkQuery<T> chunkQuery, final ToLongFunction<T> idOf) {
+            this.chunks = chunks;
+            this.chunkQuery = chunkQuery;
+            this.idOf = idOf;
+            this.chunkResults = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+            this.chunksDone = new CountDownLatch(chunks.size());
+        }
+
+        private Void runChunks() {
+            for (int index = nextChunk.getAndIncrement(); index < chunks.size(); index = nextChunk.getAndIncrement()) {
+                try {
+                    if (failure.get() == null) {
+                        final Long[] chunk = chunks.get(index);
+                        // set only, never resized, and chunksDone publishes it to the waiting thread
+                        chunkResults.set(index, inIdOrder(chunk, chunkQuery.query(chunk), idOf));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    chunksDone.countDown();
+                }
+            }
+            return null;
+        }
+
+        private List<T> await() throws SQLException {
+            try {
+                chunksDone.await();
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the chunks of an id lookup", e);
+            }
+
+            final Throwable t = failure.get();
+            if (t != null) {
+                throw rethrow(t);
+            }
+            final List<T> rows = new ArrayList<>();
+            chunkResults.forEach(rows::addAll);
+            return rows;
+        }
+    }
+
+    private static <T> List<T> await(final CompletableFuture<List<T>> result) throws SQLException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the chunks of an id lookup", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static SQLException rethrow(final Throwable cause) {
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SQLException(cause);
+    }
+}
@@ -0,0 +1,141 @@
+package com.hologramsciences;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ *
+ *  The open hours of one restaurant as 14 shorts, the start and end minute of the day for MONDAY ... SUNDAY, CLOSED
+ *  for both on days without open hours.  That is about 60 bytes per restaurant instead of an EnumMap with an OpenHours
+ *  and two LocalTimes per day.
+ *
+ *  For very many restaurants the static methods work on a slice of one big short[], SHORTS_PER_RESTAURANT shorts at
+ *  offset, so no object per restaurant is needed at all.
+ *
+ *  isOpen answers like CSVRestaurantService.isOpen for a time on the minute.
+ *
+ */
+public class CompactOpenHours {
+    public static final int SHORTS_PER_RESTAURANT = 14;
+    public static final short CLOSED = -1;
+
+    private static final int AFTER_MIDNIGHT_END_MINUTE = 5 * 60;
+
+    private final short[] minutes;
+
+    private CompactOpenHours(final short[] minutes) {
+        this.minutes = minutes;
+    }
+
+    public static CompactOpenHours of(final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap) {
+        final short[] minutes = new short[SHORTS_PER_RESTAURANT];
+        encode(openHoursMap, minutes, 0);
+        return new CompactOpenHours(minutes);
+    }
+
+    public static CompactOpenHours of(final Restaurant restaurant) {
+        return of(restaurant.getOpenHoursMap());
+    }
+
+    public static CompactOpenHours of(final OpenHoursParser.PackedOpenHours packedOpenHours) {
+        final short[] minutes = new short[SHORTS_PER_RESTAURANT];
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            final int index = (dayOfWeek.getValue() - 1) * 2;
+            if (packedOpenHours.isOpen(dayOfWeek)) {
+                minutes[index]     = (short) packedOpenHours.getStartMinuteOfDay(dayOfWeek);
+                minutes[index + 1] = (short) packedOpenHours.getEndMinuteOfDay(dayOfWeek);
+            } else {
+                minutes[index]     = CLOSED;
+                minutes[index + 1] = CLOSED;
+            }
+        }
+        return new CompactOpenHours(minutes);
+    }
+
+    public boolean isOpen(final DayOfWeek dayOfWeek, final int minuteOfDay) {
+        return isOpen(minutes, 0, dayOfWeek, minuteOfDay);
+    }
+
+    public boolean hasOpenHours(final DayOfWeek dayOfWeek) {
+        return minutes[(dayOfWeek.getValue() - 1) * 2] != CLOSED;
+    }
+
+    public int getStartMinuteOfDay(final DayOfWeek dayOfWeek) {
+        return minutes[(dayOfWeek.getValue() - 1) * 2];
+    }
+
+    public int getEndMinuteOfDay(final DayOfWeek dayOfWeek) {
+        return minutes[(dayOfWeek.getValue() - 1) * 2 + 1];
+    }
+
+    public Map<DayOfWeek, Restaurant.OpenHours> toOpenHoursMap() {
+        return decode(minutes, 0);
+    }
+
+    public Restaurant toRestaurant(final String name) {
+        return new Restaurant(name, toOpenHoursMap());
+    }
+
+    /**
+     *  Writes SHORTS_PER_RESTAURANT shorts to target, starting at offset
+     */
+    public static void encode(final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap, final short[] target, final int offset) {
+        Arrays.fill(target, offset, offset + SHORTS_PER_RESTAURANT, CLOSED);
+        openHoursMap.forEach((dayOfWeek, openHours) -> {
+            final int index = offset + (dayOfWeek.getValue() - 1) * 2;
+            target[index]     = (short) minuteOfDay(openHours.getStartTime().getHour(), openHours.getStartTime().getMinute());
+            target[index + 1] = (short) minuteOfDay(openHours.getEndTime().getHour(), openHours.getEndTime().getMinute());
+        });
+    }
+
+    public static Map<DayOfWeek, Restaurant.OpenHours> decode(final short[] source, final int offset) {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            final int index = offset + (dayOfWeek.getValue() - 1) * 2;
+            if (source[index] != CLOSED) {
+                openHoursMap.put(dayOfWeek, new Restaurant.OpenHours(OpenHoursParser.localTimeOf(source[index]), OpenHoursParser.localTimeOf(source[index + 1])));
+            }
+        }
+        return openHoursMap;
+    }
+
+    /**
+     *
+     *  CSVRestaurantService.isOpen on the restaurant encoded at offset: up to and including 05:00 the hours of the
+     *  previous day count if they span midnight, otherwise start <= minuteOfDay <= end on the day itself.
+     *
+     */
+    public static boolean isOpen(final short[] source, final int offset, final DayOfWeek dayOfWeek, final int minuteOfDay) {
+        if (minuteOfDay <= AFTER_MIDNIGHT_END_MINUTE) {
+            final int index = offset + (dayOfWeek.minus(1).getValue() - 1) * 2;
+            final int start = source[index];
+            final int end = source[index + 1];
+            return start != CLOSED && spansMidnight(start, end) && (start <= minuteOfDay || end >= minuteOfDay);
+        } else {
+            final int index = offset + (dayOfWeek.getValue() - 1) * 2;
+            final int start = source[index];
+            final int end = source[index + 1];
+            return start != CLOSED && start <= minuteOfDay && end >= minuteOfDay;
+        }
+    }
+
+    /**
+     *  Restaurant.OpenHours.spansMidnight, which counts whole hours between start and end (truncated towards zero)
+     */
+    public static boolean spansMidnight(final int startMinuteOfDay, final int endMinuteOfDay) {
+        return startMinuteOfDay != 0 && endMinuteOfDay != 0 && (endMinuteOfDay - startMinuteOfDay) / 60 < 0;
+    }
+
+    private static int minuteOfDay(final int hour, final int minute) {
+        return hour * 60 + minute;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactOpenHours{" +
+                "minutes=" + Arrays.toString(minutes) +
+                '}';
+    }
+}
@@ -0,0 +1,281 @@
+package com.hologramsciences;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ *
+ *  A bounded pool of H2 connections, shared by SQLRestaurantService and JooqRestaurantService.
+ *
+ *  getConnection hands out a proxy of a physical connection, closing the proxy returns the physical connection
+ *  to the pool.  At most maximumSize connections are checked out at a time, callers beyond that wait up to
+ *  acquireTimeout and then get an SQLTimeoutException.  Idle connections are validated with Connection.isValid
+ *  before they are handed out again, and connections held longer than leakDetectionThreshold are reported once
+ *  on System.err together with the stack trace of the caller which acquired them.
+ *
+ *  Each physical connection keeps a StatementCache of up to statementCacheSize PreparedStatements, which
+ *  survives between checkouts.
+ *
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final ConnectionPoolConfig config;
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+
+    private final Semaphore permits;
+    private final BlockingDeque<PhysicalConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> checkedOutConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final LatencyHistogram acquireWaitTime = new LatencyHistogram();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final ScheduledExecutorService leakDetector;
+
+    private volatile boolean closed = false;
+
+    /**
+     *  Opens minimumSize connections up front; if that fails the error is reported by the first getConnection instead
+     */
+    public ConnectionPool(final ConnectionPoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaximumSize(), true);
+
+        dataSource.setURL(config.getUrl());
+        dataSource.setUser(config.getUser());
+        dataSource.setPassword(config.getPassword());
+
+        try {
+            while (openConnections.get() < config.getMinimumSize()) {
+                idleConnections.offerLast(openPhysicalConnection());
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not open the minimum of " + config.getMinimumSize() + " connections to " + config.getUrl() + ": " + e.getMessage());
+        }
+
+        final long thresholdMillis = config.getLeakDetectionThreshold().toMillis();
+        if (thresholdMillis > 0) {
+            this.leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "connection-pool-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long period = Math.max(10L, thresholdMillis / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.leakDetector = null;
+        }
+    }
+
+    /**
+     *  Timed by Metrics.CONNECTION_ACQUIRE, including the validation of idle connections
+     */
+    public Connection getConnection() throws SQLException {
+        final long startNanos = Metrics.CONNECTION_ACQUIRE.start();
+        try {
+            return acquireConnection();
+        } finally {
+            Metrics.CONNECTION_ACQUIRE.stop(startNanos);
+        }
+    }
+
+    private Connection acquireConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for " + config.getUrl() + " is closed");
+        }
+
+        final long startNanos = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                acquireWaitTime.recordSince(startNanos);
+                throw new SQLTimeoutException("Timed out after " + config.getAcquireTimeout().toMillis() + "ms waiting for a connection to " + config.getUrl() + ", " + getActiveConnections() + " connections in use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + config.getUrl(), e);
+        }
+        acquireWaitTime.recordSince(startNanos);
+
+        try {
+            final Throwable acquiredAt = leakDetector == null ? null : new Throwable("Connection acquired here");
+            final PooledConnection pooledConnection = new PooledConnection(this, takeValidConnection(), acquiredAt);
+            checkedOutConnections.add(pooledConnection);
+            return pooledConnection.getProxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public ConnectionPoolConfig getConfig() {
+        return config;
+    }
+
+    public int getActiveConnections() {
+        return checkedOutConnections.size();
+    }
+
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     *  Time spent waiting in getConnection for a free slot in the pool, timed out attempts included
+     */
+    public LatencyHistogram getAcquireWaitTime() {
+        return acquireWaitTime;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+
+        PhysicalConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            closePhysicalConnection(connection);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "url='" + config.getUrl() + '\'' +
+                ", active=" + getActiveConnections() +
+                ", idle=" + getIdleConnections() +
+                ", open=" + getOpenConnections() +
+                ", leaksDetected=" + getLeaksDetected() +
+                ", statementCacheHits=" + getStatementCacheHits() +
+                ", statementCacheMisses=" + getStatementCacheMisses() +
+                ", acquireWaitTime=" + acquireWaitTime +
+                '}';
+    }
+
+    void release(final PooledConnection pooledConnection) {
+        checkedOutConnections.remove(pooledConnection);
+
+        final PhysicalConnection connection = pooledConnection.getPhysicalConnection();
+        try {
+            if (closed || connection.getConnection().isClosed()) {
+                closePhysicalConnection(connection);
+                return;
+            }
+            if (!connection.getConnection().getAutoCommit()) {
+                connection.getConnection().rollback();
+                connection.getConnection().setAutoCommit(true);
+            }
+            idleConnections.offerFirst(connection);
+        } catch (SQLException e) {
+            closePhysicalConnection(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PhysicalConnection takeValidConnection() throws SQLException {
+        PhysicalConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            if (isValid(connection)) {
+                return connection;
+            }
+            closePhysicalConnection(connection);
+        }
+        return openPhysicalConnection();
+    }
+
+    private boolean isValid(final PhysicalConnection connection) {
+        try {
+            return connection.getConnection().isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PhysicalConnection openPhysicalConnection() throws SQLException {
+        final Connection connection = dataSource.getConnection();
+        openConnections.incrementAndGet();
+
+        final StatementCache statementCache = config.getStatementCacheSize() > 0
+                ? new StatementCache(config.getStatementCacheSize(), statementCacheHits, statementCacheMisses)
+                : null;
+        return new PhysicalConnection(connection, statementCache);
+    }
+
+    private void closePhysicalConnection(final PhysicalConnection connection) {
+        openConnections.decrementAndGet();
+        try {
+            if (connection.getStatementCache() != null) {
+                connection.getStatementCache().closeAll();
+            }
+            connection.getConnection().close();
+        } catch (SQLException e) {
+            System.err.println("Could not close connection to " + config.getUrl() + ": " + e.getMessage());
+        }
+    }
+
+    private void detectLeaks() {
+        final long thresholdNanos = config.getLeakDetectionThreshold().toNanos();
+        final long now = System.nanoTime();
+
+        for (final PooledConnection pooledConnection : checkedOutConnections) {
+            final long heldNanos = now - pooledConnection.getAcquiredNanos();
+            if (heldNanos > thresholdNanos && pooledConnection.markLeakReported()) {
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak, connection to " + config.getUrl() + " held for " + TimeUnit.NANOSECONDS.toMillis(heldNanos) + "ms");
+                pooledConnection.getAcquiredAt().printStackTrace();
+            }
+        }
+    }
+
+    static class PhysicalConnection {
+        private final Connection connection;
+        private final StatementCache statementCache;
+
+        private PhysicalConnection(final Connection connection, final StatementCache statementCache) {
+            this.connection = connection;
+            this.statementCache = statementCache;
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         *  null when statement caching is turned off
+         */
+        StatementCache getStatementCache() {
+            return statementCache;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hologramsciences;
+
+import java.time.Duration;
+
+/**
+ *
+ *  Immutable settings for a ConnectionPool, every with* method returns a modified copy:
+ *
+ *    new ConnectionPoolConfig(url, "sa", "sa")
+ *            .withMaximumSize(20)
+ *            .withAcquireTimeout(Duration.ofSeconds(2))
+ *
+ *  A zero leakDetectionThreshold turns leak detection off, a zero statementCacheSize turns off caching
+ *  of PreparedStatements.
+ *
+ */
+public class ConnectionPoolConfig {
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minimumSize;
+    private final int maximumSize;
+    private final Duration acquireTimeout;
+    private final int validationTimeoutSeconds;
+    private final Duration leakDetectionThreshold;
+    private final int statementCacheSize;
+
+    public ConnectionPoolConfig(final String url, final String user, final String password) {
+        this(url, user, password, 1, 10, Duration.ofSeconds(30), 1, Duration.ZERO, 64);
+    }
+
+    private ConnectionPoolConfig(final String url, final String user, final String password, final int minimumSize, final int maximumSize,
+                                 final Duration acquireTimeout, final int validationTimeoutSeconds, final Duration leakDetectionThreshold,
+                                 final int statementCacheSize) {
+        if (minimumSize < 0 || maximumSize < 1 || minimumSize > maximumSize) {
+            throw new IllegalArgumentException("Invalid pool size, minimum: " + minimumSize + ", maximum: " + maximumSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minimumSize = minimumSize;
+        this.maximumSize = maximumSize;
+        this.acquireTimeout = acquireTimeout;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public ConnectionPoolConfig withMinimumSize(final int minimumSize) {
+        return new ConnectionPoolConfig(url, user, password, minimumSize, maximumSize, acquireTimeout, validationTimeoutSeconds, leakDetectionThreshold, statementCacheSize);
+    }
+
+    public ConnectionPoolConfig withMaximumSize(final int maximumSize) {
+        return new ConnectionPoolConfig(url, user, password, minimumSize, maximumSize, acquireTimeout, validationTimeoutSeconds, leakDetectionThreshold, statementCacheSize);
+    }
+
+    public ConnectionPoolConfig withAcquireTimeout(final Duration acquireTimeout) {
+        return new ConnectionPoolConfig(url, user, password, minimumSize, maximumSize, acquireTimeout, validationTimeoutSeconds, leakDetectionThreshold, statementCacheSize);
+    }
+
+    public ConnectionPoolConfig withValidationTimeoutSeconds(final int validationTimeoutSeconds) {
+        return new ConnectionPoolConfig(url, user, password, minimumSize, maximumSize, acquireTimeout, validationTimeoutSeconds, leakDetectionThreshold, statementCacheSize);
+    }
+
+    public ConnectionPoolConfig withLeakDetectionThreshold(final Duration leakDetectionThreshold) {
+        return new ConnectionPoolConfig(url, user, password, minimumSize, maximumSize, acquireTimeout, validationTimeoutSeconds, leakDetectionThreshold, statementCacheSize);
+    }
+
+    public ConnectionPoolConfig withStatementCacheSize(final int statementCacheSize) {
+        return new ConnectionPoolConfig(url, user, password, minimumSize, maximumSize, acquireTimeout, validationTimeoutSeconds, leakDetectionThreshold, statementCacheSize);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolConfig{" +
+                "url='" + url + '\'' +
+                ", user='" + user + '\'' +
+                ", minimumSize=" + minimumSize +
+                ", maximumSize=" + maximumSize +
+                ", acquireTimeout=" + acquireTimeout +
+                ", validationTimeoutSeconds=" + validationTimeoutSeconds +
+                ", leakDetectionThreshold=" + leakDetectionThreshold +
+                ", statementCacheSize=" + statementCacheSize +
+                '}';
+    }
+}
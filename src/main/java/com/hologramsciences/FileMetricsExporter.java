@@ -0,0 +1,37 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ *  Appends every snapshot to a local file, in the line format of MetricsSnapshot.toLines, so it can be tailed or
+ *  picked up by a log shipper.
+ *
+ */
+public class FileMetricsExporter implements MetricsExporter {
+    private final Path path;
+
+    public FileMetricsExporter(final Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void export(final MetricsSnapshot snapshot) throws IOException {
+        Files.write(path, snapshot.toLines(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "FileMetricsExporter{" +
+                "path=" + path +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.hologramsciences;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ *
+ *  Keeps the last capacity snapshots in memory, e.g. for a status page or a test.
+ *
+ */
+public class InMemoryMetricsExporter implements MetricsExporter {
+    private final int capacity;
+    private final Deque<MetricsSnapshot> snapshots = new ArrayDeque<>();
+
+    public InMemoryMetricsExporter(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void export(final MetricsSnapshot snapshot) {
+        if (snapshots.size() == capacity) {
+            snapshots.removeFirst();
+        }
+        snapshots.addLast(snapshot);
+    }
+
+    /**
+     *  null before the first export
+     */
+    public synchronized MetricsSnapshot getLatest() {
+        return snapshots.peekLast();
+    }
+
+    /**
+     *  Oldest first
+     */
+    public synchronized List<MetricsSnapshot> getSnapshots() {
+        return new ArrayList<>(snapshots);
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryMetricsExporter{" +
+                "capacity=" + capacity +
+                '}';
+    }
+}
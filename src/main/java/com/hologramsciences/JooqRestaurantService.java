@@ -3,11 +3,19 @@ package com.hologramsciences;
 import java.sql.SQLException;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Record2;
+import org.jooq.ResultQuery;
 import org.jooq.SQLDialect;
+import org.jooq.Select;
 import org.jooq.codegen.GenerationTool;
 import org.jooq.impl.DSL;
 import org.jooq.meta.jaxb.Configuration;
@@ -19,15 +27,29 @@ import org.jooq.meta.jaxb.Target;
 
 import com.hologramsciences.jooq.tables.records.RestaurantsRecord;
 
-import static com.hologramsciences.jooq.tables.MenuItems.MENU_ITEMS;
-import static com.hologramsciences.jooq.tables.OpenHours.OPEN_HOURS;
+import static com.hologramsciences.jooq.tables.MenuItemCounts.MENU_ITEM_COUNTS;
+import static com.hologramsciences.jooq.tables.OpenHoursSpans.OPEN_HOURS_SPANS;
 import static com.hologramsciences.jooq.tables.Restaurants.RESTAURANTS;
 import static java.time.temporal.ChronoField.MINUTE_OF_DAY;
-import static org.jooq.impl.DSL.count;
 
 public class JooqRestaurantService {
 
-    private final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService();
+    private final SQLRestaurantService sqlRestaurantService;
+
+    public JooqRestaurantService() {
+        this(new SQLRestaurantService());
+    }
+
+    /**
+     *  Runs the jOOQ queries on connections from the ConnectionPool of sqlRestaurantService
+     */
+    public JooqRestaurantService(final SQLRestaurantService sqlRestaurantService) {
+        this.sqlRestaurantService = sqlRestaurantService;
+    }
+
+    public SQLRestaurantService getSQLRestaurantService() {
+        return sqlRestaurantService;
+    }
 
     /**
      *
@@ -38,25 +60,53 @@ public class JooqRestaurantService {
      *
      */
     public List<RestaurantsRecord> getOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) throws SQLException {
-        final String dayOfWeekString = dayOfWeek.toString();
-        final Integer minuteOfDay    = localTime.get(MINUTE_OF_DAY);
-        final DayOfWeek previousDayOfWeek = dayOfWeek.minus(1);
-        final String previousDayOfWeekString = previousDayOfWeek.toString();
-
-        return withDSLContext(create -> create
-                    .selectDistinct(RESTAURANTS.ID, RESTAURANTS.NAME)
-                    .from(RESTAURANTS)
-                    .join(OPEN_HOURS).on(OPEN_HOURS.RESTAURANT_ID.eq(RESTAURANTS.ID))
-                    .where((OPEN_HOURS.START_TIME_MINUTE_OF_DAY.lessOrEqual(minuteOfDay)
-                            .and(OPEN_HOURS.END_TIME_MINUTE_OF_DAY.greaterOrEqual(minuteOfDay)
-                            .and(OPEN_HOURS.DAY_OF_WEEK.eq(dayOfWeekString))))
-                            .or((OPEN_HOURS.START_TIME_MINUTE_OF_DAY.ne(0).and(OPEN_HOURS.END_TIME_MINUTE_OF_DAY.ne(0)))
-                            .and(OPEN_HOURS.START_TIME_MINUTE_OF_DAY.minus(OPEN_HOURS.END_TIME_MINUTE_OF_DAY).gt(0).and(OPEN_HOURS.DAY_OF_WEEK.eq(previousDayOfWeekString)))
-                            .and((OPEN_HOURS.START_TIME_MINUTE_OF_DAY.le(minuteOfDay).and(OPEN_HOURS.END_TIME_MINUTE_OF_DAY.lt(minuteOfDay)))
-                                    .or(OPEN_HOURS.START_TIME_MINUTE_OF_DAY.gt(minuteOfDay).and(OPEN_HOURS.END_TIME_MINUTE_OF_DAY.gt(minuteOfDay)))))
-                    )
-                    .fetchInto(RESTAURANTS)
-        );
+        final long startNanos = Metrics.JOOQ_OPEN_RESTAURANTS.start();
+        try {
+            final List<RestaurantsRecord> restaurantRecords = fetchRestaurants(create -> openRestaurantsQuery(create, dayOfWeek, localTime));
+            Metrics.JOOQ_OPEN_RESTAURANTS_RETURNED.add(restaurantRecords.size());
+            return restaurantRecords;
+        } finally {
+            Metrics.JOOQ_OPEN_RESTAURANTS.stop(startNanos);
+        }
+    }
+
+    /**
+     *  The range scan of SQLRestaurantService.getOpenRestaurants over open_hours_spans
+     */
+    static Select<Record2<Long, String>> openRestaurantsQuery(final DSLContext create, final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        final int minuteOfWeek = OpenHoursSpansTrigger.minuteOfWeek(dayOfWeek, localTime.get(MINUTE_OF_DAY));
+
+        return create
+                .selectDistinct(RESTAURANTS.ID, RESTAURANTS.NAME)
+                .from(OPEN_HOURS_SPANS)
+                .join(RESTAURANTS).on(RESTAURANTS.ID.eq(OPEN_HOURS_SPANS.RESTAURANT_ID))
+                .where(OPEN_HOURS_SPANS.START_MINUTE_OF_WEEK.between(OpenHoursSpansTrigger.firstMinuteOfWeek(dayOfWeek), minuteOfWeek)
+                        .and(OPEN_HOURS_SPANS.END_MINUTE_OF_WEEK.greaterOrEqual(minuteOfWeek)));
+    }
+
+    /**
+     *  getOpenRestaurants read through a jOOQ Cursor, see SQLRestaurantService.streamOpenRestaurants
+     */
+    public Stream<RestaurantsRecord> streamOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime, final int fetchSize) throws SQLException {
+        return streamRestaurants(create -> openRestaurantsQuery(create, dayOfWeek, localTime), fetchSize);
+    }
+
+    public Stream<RestaurantsRecord> streamOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) throws SQLException {
+        return streamOpenRestaurants(dayOfWeek, localTime, SQLRestaurantService.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<RestaurantsRecord> streamAllRestaurants(final int fetchSize) throws SQLException {
+        return streamRestaurants(JooqRestaurantService::allRestaurantsQuery, fetchSize);
+    }
+
+    public Stream<RestaurantsRecord> streamAllRestaurants() throws SQLException {
+        return streamAllRestaurants(SQLRestaurantService.DEFAULT_FETCH_SIZE);
+    }
+
+    static Select<RestaurantsRecord> allRestaurantsQuery(final DSLContext create) {
+        return create
+                .selectFrom(RESTAURANTS)
+                .orderBy(RESTAURANTS.ID);
     }
 
     /**
@@ -67,14 +117,76 @@ public class JooqRestaurantService {
      *
      */
     public List<RestaurantsRecord> getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(final Integer menuSize) throws SQLException {
-        return withDSLContext(create -> create
-                    .select(RESTAURANTS.ID, RESTAURANTS.NAME, count())
-                    .from(RESTAURANTS)
-                    .join(MENU_ITEMS).on(MENU_ITEMS.RESTAURANT_ID.eq(RESTAURANTS.ID))
-                    .groupBy(RESTAURANTS.ID, RESTAURANTS.NAME)
-                    .having(count().ge(menuSize))
-                    .fetchInto(RESTAURANTS)
-        );
+        return fetchRestaurants(create -> menuSizeQuery(create, menuSize));
+    }
+
+    /**
+     *  The range scan of SQLRestaurantService.getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo over menu_item_counts
+     */
+    static Select<Record2<Long, String>> menuSizeQuery(final DSLContext create, final Integer menuSize) {
+        return create
+                .select(RESTAURANTS.ID, RESTAURANTS.NAME)
+                .from(MENU_ITEM_COUNTS)
+                .join(RESTAURANTS).on(RESTAURANTS.ID.eq(MENU_ITEM_COUNTS.RESTAURANT_ID))
+                .where(MENU_ITEM_COUNTS.MENU_ITEM_COUNT.greaterOrEqual(menuSize));
+    }
+
+    /**
+     *  The chunked lookup of SQLRestaurantService.getAllRestaurantRecordsWithIds, see ChunkedIdLookup
+     */
+    public List<RestaurantsRecord> getAllRestaurantRecordsWithIds(final Collection<Long> ids) throws SQLException {
+        return ChunkedIdLookup.lookup(sqlRestaurantService.getQueryExecutor(), ids, ChunkedIdLookup.DEFAULT_CHUNK_SIZE, this::getRestaurantRecordsWithIds, RestaurantsRecord::getId);
+    }
+
+    private List<RestaurantsRecord> getRestaurantRecordsWithIds(final Long[] ids) throws SQLException {
+        return fetchRestaurants(create -> restaurantsWithIdsQuery(create, ids));
+    }
+
+    /**
+     *  jOOQ 3.13 renders RESTAURANTS.ID.eq(any(ids)) for H2 with a bind value per id, or casts an array bind value to
+     *  the H2 1.x type ARRAY, so the single array parameter is written as plain SQL
+     */
+    static Select<RestaurantsRecord> restaurantsWithIdsQuery(final DSLContext create, final Long[] ids) {
+        return create
+                .selectFrom(RESTAURANTS)
+                .where(DSL.condition("{0} = any({1})", RESTAURANTS.ID, DSL.field("?", Object.class, (Object) ids)));
+    }
+
+    /**
+     *  getOpenRestaurants on the QueryExecutor of sqlRestaurantService, see there for timeouts and cancellation
+     */
+    public CompletableFuture<List<RestaurantsRecord>> getOpenRestaurantsAsync(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        return sqlRestaurantService.getQueryExecutor().submit(() -> getOpenRestaurants(dayOfWeek, localTime));
+    }
+
+    public CompletableFuture<List<RestaurantsRecord>> getRestaurantsWithMenuOfSizeGreaterThanOrEqualToAsync(final Integer menuSize) {
+        return sqlRestaurantService.getQueryExecutor().submit(() -> getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(menuSize));
+    }
+
+    public CompletableFuture<List<RestaurantsRecord>> getAllRestaurantRecordsWithIdsAsync(final Collection<Long> ids) {
+        return ChunkedIdLookup.lookupAsync(sqlRestaurantService.getQueryExecutor(), ids, ChunkedIdLookup.DEFAULT_CHUNK_SIZE, this::getRestaurantRecordsWithIds, RestaurantsRecord::getId);
+    }
+
+    private List<RestaurantsRecord> fetchRestaurants(final Function<DSLContext, ResultQuery<? extends Record>> query) throws SQLException {
+        final List<RestaurantsRecord> restaurantRecords = withDSLContext(create -> query.apply(create).fetchInto(RESTAURANTS));
+        Metrics.SQL_ROWS_FETCHED.add(restaurantRecords.size());
+        return restaurantRecords;
+    }
+
+    /**
+     *  A Cursor over the query, which keeps its connection of the pool until the stream is closed
+     */
+    private Stream<RestaurantsRecord> streamRestaurants(final Function<DSLContext, ResultQuery<? extends Record>> query, final int fetchSize) throws SQLException {
+        return sqlRestaurantService.streamOnConnection(connection -> {
+            final DSLContext create = DSL.using(connection, SQLDialect.H2);
+            final Cursor<? extends Record> cursor = query.apply(create).fetchSize(fetchSize).fetchLazy();
+            return cursor.stream()
+                    .map(record -> {
+                        Metrics.SQL_ROWS_FETCHED.increment();
+                        return record.into(RESTAURANTS);
+                    })
+                    .onClose(cursor::close);
+        });
     }
 
     public <T> T withDSLContext(final Function<DSLContext, T> function) throws SQLException {
@@ -0,0 +1,56 @@
+package com.hologramsciences;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.h2.api.Trigger;
+
+/**
+ *
+ *  Keeps the menu_item_counts table of schema.sql in step with menu_items, so
+ *  SQLRestaurantService.getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo is a range scan of menu_item_counts_count
+ *  instead of a GROUP BY over all of menu_items.
+ *
+ *  Every inserted menu item adds one to the count of its restaurant, every deleted one subtracts one, an update moving
+ *  an item to another restaurant does both.  Restaurants without menu items have no row, like they have no group in
+ *  the GROUP BY.
+ *
+ */
+public class MenuItemCountTrigger implements Trigger {
+    private static final int RESTAURANT_ID_COLUMN = 1;
+
+    private static final String INCREMENT = String.join("\n"
+            , "merge into menu_item_counts c using (values (cast(? as bigint))) v (restaurant_id) on c.restaurant_id = v.restaurant_id"
+            , " when matched then update set c.menu_item_count = c.menu_item_count + 1"
+            , " when not matched then insert (restaurant_id, menu_item_count) values (v.restaurant_id, 1)"
+    );
+    private static final String DECREMENT = "update menu_item_counts set menu_item_count = menu_item_count - 1 where restaurant_id = ?";
+    private static final String DELETE_EMPTY = "delete from menu_item_counts where restaurant_id = ? and menu_item_count <= 0";
+
+    @Override
+    public void fire(final Connection connection, final Object[] oldRow, final Object[] newRow) throws SQLException {
+        final Long oldRestaurantId = oldRow == null ? null : ((Number) oldRow[RESTAURANT_ID_COLUMN]).longValue();
+        final Long newRestaurantId = newRow == null ? null : ((Number) newRow[RESTAURANT_ID_COLUMN]).longValue();
+
+        if (oldRestaurantId != null && oldRestaurantId.equals(newRestaurantId)) {
+            return;
+        }
+
+        if (oldRestaurantId != null) {
+            executeUpdate(connection, DECREMENT, oldRestaurantId);
+            executeUpdate(connection, DELETE_EMPTY, oldRestaurantId);
+        }
+
+        if (newRestaurantId != null) {
+            executeUpdate(connection, INCREMENT, newRestaurantId);
+        }
+    }
+
+    private static void executeUpdate(final Connection connection, final String sql, final long restaurantId) throws SQLException {
+        try (final PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setLong(1, restaurantId);
+            preparedStatement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ *  Process wide timers and counters of the restaurant services, recording only once enabled.
+ *
+ *  The hot paths hold the Timer and Counter constants below.  While recording is disabled Timer.start returns without
+ *  reading the clock, Timer.stop and Counter.add return at once, each costs a volatile read (see MetricsBenchmark).
+ *  Enabled, a Timer records into a LatencyHistogram and a Counter adds to a LongAdder, neither allocates.
+ *
+ *  snapshot copies the current values into a MetricsSnapshot, export hands one to a MetricsExporter such as an
+ *  InMemoryMetricsExporter or a FileMetricsExporter.  A TraceListener is told about every timed call as it ends.
+ *
+ */
+public final class Metrics {
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    // before the constants, which register themselves
+    private static final Map<String, Timer> TIMERS = new LinkedHashMap<>();
+    private static final Map<String, Counter> COUNTERS = new LinkedHashMap<>();
+
+    private static volatile boolean enabled;
+    private static volatile TraceListener traceListener;
+
+    public static final Timer   CSV_OPEN_RESTAURANTS          = timer("csv.getOpenRestaurants");
+    public static final Counter CSV_OPEN_RESTAURANTS_RETURNED = counter("csv.getOpenRestaurants.rowsReturned");
+
+    public static final Timer   SQL_OPEN_RESTAURANTS          = timer("sql.getOpenRestaurants");
+    public static final Counter SQL_OPEN_RESTAURANTS_RETURNED = counter("sql.getOpenRestaurants.rowsReturned");
+    // rows read from result sets, by SQLRestaurantService and JooqRestaurantService alike
+    public static final Counter SQL_ROWS_FETCHED              = counter("sql.rowsFetched");
+    public static final Timer   SQL_INITIALIZE_DATABASE       = timer("sql.initializeDatabase");
+
+    public static final Timer   JOOQ_OPEN_RESTAURANTS          = timer("jooq.getOpenRestaurants");
+    public static final Counter JOOQ_OPEN_RESTAURANTS_RETURNED = counter("jooq.getOpenRestaurants.rowsReturned");
+
+    public static final Timer   CONNECTION_ACQUIRE = timer("connectionPool.acquire");
+
+    public static final Timer   CSV_PARSE           = timer("resourceLoader.parse");
+    public static final Counter CSV_RECORDS_SCANNED = counter("resourceLoader.recordsScanned");
+    public static final Counter CSV_RECORDS_PARSED  = counter("resourceLoader.recordsParsed");
+
+    @FunctionalInterface
+    public interface TraceListener {
+        void onSpan(final String name, final long startNanos, final long durationNanos);
+    }
+
+    public static final class Timer {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Timer(final String name) {
+            this.name = name;
+        }
+
+        /**
+         *  The value to hand to stop, without reading the clock while recording is disabled
+         */
+        public long start() {
+            return enabled ? System.nanoTime() : NOT_STARTED;
+        }
+
+        public void stop(final long startNanos) {
+            if (startNanos != NOT_STARTED) {
+                final long durationNanos = System.nanoTime() - startNanos;
+                histogram.record(durationNanos);
+
+                final TraceListener listener = traceListener;
+                if (listener != null) {
+                    listener.onSpan(name, startNanos, durationNanos);
+                }
+            }
+        }
+
+        /**
+         *  For durations measured elsewhere, e.g. ResourceLoader.LoadStatistics
+         */
+        public void record(final long durationNanos) {
+            if (enabled) {
+                histogram.record(durationNanos);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    public static final class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(final String name) {
+            this.name = name;
+        }
+
+        public void add(final long delta) {
+            if (enabled) {
+                value.add(delta);
+            }
+        }
+
+        public void increment() {
+            add(1L);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     *  The timer of that name, created on first use
+     */
+    public static Timer timer(final String name) {
+        synchronized (TIMERS) {
+            return TIMERS.computeIfAbsent(name, Timer::new);
+        }
+    }
+
+    /**
+     *  The counter of that name, created on first use
+     */
+    public static Counter counter(final String name) {
+        synchronized (COUNTERS) {
+            return COUNTERS.computeIfAbsent(name, Counter::new);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     *  null removes the listener
+     */
+    public static void setTraceListener(final TraceListener listener) {
+        traceListener = listener;
+    }
+
+    /**
+     *  Sets every timer and counter back to zero
+     */
+    public static void reset() {
+        for (final Timer timer : timers()) {
+            timer.histogram.reset();
+        }
+        for (final Counter counter : counters()) {
+            counter.value.reset();
+        }
+    }
+
+    public static MetricsSnapshot snapshot() {
+        final Map<String, MetricsSnapshot.TimerSnapshot> timerSnapshots = new LinkedHashMap<>();
+        for (final Timer timer : timers()) {
+            timerSnapshots.put(timer.getName(), new MetricsSnapshot.TimerSnapshot(timer.getHistogram()));
+        }
+        final Map<String, Long> counterValues = new LinkedHashMap<>();
+        for (final Counter counter : counters()) {
+            counterValues.put(counter.getName(), counter.get());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), timerSnapshots, counterValues);
+    }
+
+    public static void export(final MetricsExporter exporter) throws IOException {
+        exporter.export(snapshot());
+    }
+
+    /**
+     *  Exports a snapshot every period on a daemon thread until the returned AutoCloseable is closed.  A failed export
+     *  is reported on System.err and does not stop the following ones.
+     */
+    public static AutoCloseable exportEvery(final Duration period, final MetricsExporter exporter) {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                export(exporter);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Exporting metrics to " + exporter + " failed: " + e);
+            }
+        }, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+        return scheduler::shutdown;
+    }
+
+    private static List<Timer> timers() {
+        synchronized (TIMERS) {
+            return new ArrayList<>(TIMERS.values());
+        }
+    }
+
+    private static List<Counter> counters() {
+        synchronized (COUNTERS) {
+            return new ArrayList<>(COUNTERS.values());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+
+/**
+ *
+ *  Where Metrics.export and Metrics.exportEvery send their snapshots.
+ *
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+    void export(final MetricsSnapshot snapshot) throws IOException;
+}
@@ -0,0 +1,119 @@
+package com.hologramsciences;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ *  The values of all Metrics timers and counters at one point in time, see Metrics.snapshot.
+ *
+ */
+public class MetricsSnapshot {
+    private final long timestampMillis;
+    private final Map<String, TimerSnapshot> timers;
+    private final Map<String, Long> counters;
+
+    public static class TimerSnapshot {
+        private final long count;
+        private final double meanNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        public TimerSnapshot(final LatencyHistogram histogram) {
+            this.count = histogram.getCount();
+            this.meanNanos = histogram.getMeanNanos();
+            this.p50Nanos = histogram.getValueAtPercentile(50);
+            this.p90Nanos = histogram.getValueAtPercentile(90);
+            this.p99Nanos = histogram.getValueAtPercentile(99);
+            this.maxNanos = histogram.getMaxNanos();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count +
+                    " meanMicros=" + String.format("%.1f", meanNanos / 1000.0) +
+                    " p50Micros=" + TimeUnit.NANOSECONDS.toMicros(p50Nanos) +
+                    " p90Micros=" + TimeUnit.NANOSECONDS.toMicros(p90Nanos) +
+                    " p99Micros=" + TimeUnit.NANOSECONDS.toMicros(p99Nanos) +
+                    " maxMicros=" + TimeUnit.NANOSECONDS.toMicros(maxNanos);
+        }
+    }
+
+    public MetricsSnapshot(final long timestampMillis, final Map<String, TimerSnapshot> timers, final Map<String, Long> counters) {
+        this.timestampMillis = timestampMillis;
+        this.timers = Collections.unmodifiableMap(timers);
+        this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Map<String, TimerSnapshot> getTimers() {
+        return timers;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public TimerSnapshot getTimer(final String name) {
+        return timers.get(name);
+    }
+
+    /**
+     *  0 for unknown counters
+     */
+    public long getCounter(final String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     *  One line per timer and counter:
+     *
+     *    2020-01-01T12:00:00Z timer sql.getOpenRestaurants count=10 meanMicros=52.3 p50Micros=48 ...
+     *    2020-01-01T12:00:00Z counter sql.rowsFetched 60
+     */
+    public List<String> toLines() {
+        final String timestamp = Instant.ofEpochMilli(timestampMillis).toString();
+        final List<String> lines = new ArrayList<>(timers.size() + counters.size());
+        timers.forEach((name, timer) -> lines.add(timestamp + " timer " + name + " " + timer));
+        counters.forEach((name, value) -> lines.add(timestamp + " counter " + name + " " + value));
+        return lines;
+    }
+
+    @Override
+    public String toString() {
+        return String.join("\n", toLines());
+    }
+}
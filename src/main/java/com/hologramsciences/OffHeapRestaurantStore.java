@@ -0,0 +1,260 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ *  Restaurants and their open hours in one ByteBuffer outside the heap, either a direct buffer or a memory mapped
+ *  snapshot file, so a restart maps the snapshot instead of parsing rest_hours.csv again.
+ *
+ *  The layout is columnar, little endian:
+ *
+ *   header        MAGIC, VERSION, restaurant count n, name blob length            4 ints
+ *   ids           n ints
+ *   name offsets  n + 1 ints into the name blob, name i is [offset i, offset i + 1)
+ *   minutes       14 columns of n shorts, start and end minute of the day for MONDAY ... SUNDAY, CompactOpenHours.CLOSED
+ *                 for days without open hours
+ *   name blob     the UTF-8 names
+ *
+ *  getOpenRestaurants answers like CSVRestaurantService.getOpenRestaurants, restaurants keep the order they were
+ *  stored in.  The buffer is only read with absolute gets, so a store can be shared between threads.
+ *
+ */
+public class OffHeapRestaurantStore {
+    public static final int MAGIC = 0x484f5253;
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int COLUMNS = CompactOpenHours.SHORTS_PER_RESTAURANT;
+
+    private final ByteBuffer buffer;
+    private final int restaurantCount;
+    private final int idsOffset;
+    private final int nameOffsetsOffset;
+    private final int minutesOffset;
+    private final int nameBlobOffset;
+
+    private OffHeapRestaurantStore(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a restaurant snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported restaurant snapshot version: " + buffer.getInt(4));
+        }
+        this.restaurantCount   = buffer.getInt(8);
+        this.idsOffset         = HEADER_BYTES;
+        this.nameOffsetsOffset = idsOffset + restaurantCount * Integer.BYTES;
+        this.minutesOffset     = nameOffsetsOffset + (restaurantCount + 1) * Integer.BYTES;
+        this.nameBlobOffset    = minutesOffset + COLUMNS * restaurantCount * Short.BYTES;
+
+        if ((long) nameBlobOffset + buffer.getInt(12) != buffer.capacity()) {
+            throw new IOException("Truncated restaurant snapshot");
+        }
+    }
+
+    /**
+     *  Ids are 1 ... n in list order, like the identity column of restaurants in schema.sql after loading data.sql
+     */
+    public static OffHeapRestaurantStore of(final List<Restaurant> restaurants) {
+        final int[] ids = new int[restaurants.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        return of(restaurants, ids);
+    }
+
+    /**
+     *  The size of a store, throws IllegalArgumentException when it does not fit in a ByteBuffer (2 GB)
+     */
+    static int storeBytes(final int restaurantCount, final long nameBlobLength) {
+        try {
+            final long columnBytes = Math.multiplyExact((long) restaurantCount, 2L * Integer.BYTES + COLUMNS * Short.BYTES);
+            return Math.toIntExact(Math.addExact(HEADER_BYTES + Integer.BYTES + columnBytes, nameBlobLength));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(restaurantCount + " restaurants with " + nameBlobLength + " bytes of names do not fit in a store of at most 2 GB", e);
+        }
+    }
+
+    public static OffHeapRestaurantStore of(final List<Restaurant> restaurants, final int[] ids) {
+        if (ids.length != restaurants.size()) {
+            throw new IllegalArgumentException("Expected " + restaurants.size() + " ids, got " + ids.length);
+        }
+        final int n = restaurants.size();
+
+        final List<byte[]> names = new ArrayList<>(n);
+        long nameBlobLength = 0;
+        for (final Restaurant restaurant : restaurants) {
+            final byte[] name = restaurant.getName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            nameBlobLength += name.length;
+        }
+
+        final int bytes = storeBytes(n, nameBlobLength);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt((int) nameBlobLength);
+        for (final int id : ids) {
+            buffer.putInt(id);
+        }
+
+        int nameOffset = 0;
+        for (final byte[] name : names) {
+            buffer.putInt(nameOffset);
+            nameOffset += name.length;
+        }
+        buffer.putInt(nameOffset);
+
+        final short[] minutes = new short[COLUMNS];
+        final int minutesOffset = buffer.position();
+        for (int i = 0; i < n; i++) {
+            CompactOpenHours.encode(restaurants.get(i).getOpenHoursMap(), minutes, 0);
+            for (int column = 0; column < COLUMNS; column++) {
+                buffer.putShort(minutesOffset + (column * n + i) * Short.BYTES, minutes[column]);
+            }
+        }
+        buffer.position(minutesOffset + COLUMNS * n * Short.BYTES);
+
+        for (final byte[] name : names) {
+            buffer.put(name);
+        }
+        buffer.flip();
+
+        try {
+            return new OffHeapRestaurantStore(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     *  Maps a snapshot written by writeSnapshot, read only.  The mapping stays valid after the method returns
+     */
+    public static OffHeapRestaurantStore map(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Restaurant snapshot too large: " + channel.size());
+            }
+            return new OffHeapRestaurantStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public void writeSnapshot(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer source = buffer.duplicate();
+            source.clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            channel.force(false);
+        }
+    }
+
+    public int size() {
+        return restaurantCount;
+    }
+
+    public int getId(final int index) {
+        return buffer.getInt(idsOffset + checkIndex(index) * Integer.BYTES);
+    }
+
+    public String getName(final int index) {
+        final int from = buffer.getInt(nameOffsetsOffset + checkIndex(index) * Integer.BYTES);
+        final int to   = buffer.getInt(nameOffsetsOffset + (index + 1) * Integer.BYTES);
+
+        final byte[] name = new byte[to - from];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = buffer.get(nameBlobOffset + from + i);
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public Map<DayOfWeek, Restaurant.OpenHours> getOpenHoursMap(final int index) {
+        checkIndex(index);
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            final int start = minute(index, dayOfWeek, 0);
+            if (start != CompactOpenHours.CLOSED) {
+                openHoursMap.put(dayOfWeek, new Restaurant.OpenHours(OpenHoursParser.localTimeOf(start), OpenHoursParser.localTimeOf(minute(index, dayOfWeek, 1))));
+            }
+        }
+        return openHoursMap;
+    }
+
+    public Restaurant getRestaurant(final int index) {
+        return new Restaurant(getName(index), getOpenHoursMap(index));
+    }
+
+    public List<Restaurant> getAllRestaurants() {
+        final List<Restaurant> restaurants = new ArrayList<>(restaurantCount);
+        for (int i = 0; i < restaurantCount; i++) {
+            restaurants.add(getRestaurant(i));
+        }
+        return restaurants;
+    }
+
+    /**
+     *  See CSVRestaurantService.getOpenRestaurants
+     */
+    public List<Restaurant> getOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        final List<Restaurant> openRestaurants = new ArrayList<>();
+        for (int i = 0; i < restaurantCount; i++) {
+            if (isOpen(i, dayOfWeek, localTime)) {
+                openRestaurants.add(getRestaurant(i));
+            }
+        }
+        return openRestaurants;
+    }
+
+    /**
+     *
+     *  CSVRestaurantService.isOpen straight off the minute columns.  Open hours are minute aligned, so comparing
+     *  OpenHoursSlots slots gives the same answer as comparing LocalTimes, also for times between two minutes.
+     *
+     */
+    public boolean isOpen(final int index, final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        checkIndex(index);
+        final int slot = OpenHoursSlots.slotOfDay(localTime);
+
+        if (slot <= OpenHoursSlots.LAST_AFTER_MIDNIGHT_SLOT_OF_DAY) {
+            final DayOfWeek previousDay = dayOfWeek.minus(1);
+            final int start = minute(index, previousDay, 0);
+            final int end   = minute(index, previousDay, 1);
+            return start != CompactOpenHours.CLOSED && CompactOpenHours.spansMidnight(start, end)
+                    && (start * OpenHoursSlots.SLOTS_PER_MINUTE <= slot || end * OpenHoursSlots.SLOTS_PER_MINUTE >= slot);
+        } else {
+            final int start = minute(index, dayOfWeek, 0);
+            final int end   = minute(index, dayOfWeek, 1);
+            return start != CompactOpenHours.CLOSED
+                    && start * OpenHoursSlots.SLOTS_PER_MINUTE <= slot && end * OpenHoursSlots.SLOTS_PER_MINUTE >= slot;
+        }
+    }
+
+    /**
+     *  startOrEnd 0 for the start minute, 1 for the end minute
+     */
+    private int minute(final int index, final DayOfWeek dayOfWeek, final int startOrEnd) {
+        final int column = (dayOfWeek.getValue() - 1) * 2 + startOrEnd;
+        return buffer.getShort(minutesOffset + (column * restaurantCount + index) * Short.BYTES);
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= restaurantCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + restaurantCount);
+        }
+        return index;
+    }
+}
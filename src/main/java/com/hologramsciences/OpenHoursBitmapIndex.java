@@ -0,0 +1,132 @@
+package com.hologramsciences;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.hologramsciences.OpenHoursSlots.SLOTS_PER_WEEK;
+
+/**
+ *
+ *  Answers CSVRestaurantService.getOpenRestaurants with one BitSet lookup.
+ *
+ *  For every slot of the week (see OpenHoursSlots) the index keeps a BitSet with bit i set when restaurants.get(i)
+ *  is open during that slot, including the after midnight spill into the next DayOfWeek.
+ *
+ *  The BitSets are built with a single sweep over the week: every open range toggles its restaurant's bit on at
+ *  its first slot and off after its last slot.  Consecutive slots without a toggle share one BitSet instance, so
+ *  memory grows with the number of distinct opening/closing times rather than with the 20,160 slots of the week.
+ *
+ */
+public class OpenHoursBitmapIndex {
+    private final Restaurant[] restaurants;
+    private final BitSet[] openBySlot;
+
+    public OpenHoursBitmapIndex(final List<Restaurant> restaurantList) {
+        this.restaurants = restaurantList.toArray(new Restaurant[0]);
+        this.openBySlot = new BitSet[SLOTS_PER_WEEK];
+
+        final BitSet[] toggles = new BitSet[SLOTS_PER_WEEK + 1];
+        for (int i = 0; i < restaurants.length; i++) {
+            final int restaurantIndex = i;
+            OpenHoursSlots.forEachOpenRange(restaurants[i].getOpenHoursMap(), (firstSlot, lastSlot) -> {
+                toggle(toggles, firstSlot, restaurantIndex);
+                toggle(toggles, lastSlot + 1, restaurantIndex);
+            });
+        }
+
+        final BitSet open = new BitSet(restaurants.length);
+        BitSet snapshot = (BitSet) open.clone();
+        for (int slot = 0; slot < SLOTS_PER_WEEK; slot++) {
+            if (toggles[slot] != null) {
+                open.xor(toggles[slot]);
+                snapshot = (BitSet) open.clone();
+            }
+            openBySlot[slot] = snapshot;
+        }
+    }
+
+    private OpenHoursBitmapIndex(final Restaurant[] restaurants, final BitSet[] openBySlot) {
+        this.restaurants = restaurants;
+        this.openBySlot = openBySlot;
+    }
+
+    /**
+     *
+     *  A copy of this index with restaurant i replaced by replacements.get(i), indexes from size() on append.
+     *
+     *  Only the slots in which a replaced restaurant opens or closes differently get new BitSets, copied from the old
+     *  ones with the restaurant's bit flipped, all other slots share their BitSet with this index.  This index is
+     *  left unchanged, so readers of it are not disturbed.
+     *
+     */
+    public OpenHoursBitmapIndex withRestaurants(final Map<Integer, Restaurant> replacements) {
+        final int size = restaurants.length + (int) replacements.keySet().stream().filter(i -> i >= restaurants.length).count();
+        for (final int i : replacements.keySet()) {
+            if (i < 0 || i >= size) {
+                throw new IllegalArgumentException("Restaurant index " + i + " is outside of 0.." + (size - 1));
+            }
+        }
+
+        final Restaurant[] newRestaurants = Arrays.copyOf(restaurants, size);
+        final BitSet[] newOpenBySlot = openBySlot.clone();
+        replacements.forEach((restaurantIndex, restaurant) -> {
+            final BitSet changedSlots = restaurantIndex < restaurants.length ? openSlots(restaurants[restaurantIndex]) : new BitSet();
+            changedSlots.xor(openSlots(restaurant));
+            newRestaurants[restaurantIndex] = restaurant;
+
+            // consecutive slots which shared a BitSet share its copy
+            BitSet original = null;
+            BitSet copy = null;
+            int previousSlot = -2;
+            for (int slot = changedSlots.nextSetBit(0); slot >= 0; slot = changedSlots.nextSetBit(slot + 1)) {
+                if (slot != previousSlot + 1 || newOpenBySlot[slot] != original) {
+                    original = newOpenBySlot[slot];
+                    copy = (BitSet) original.clone();
+                    copy.flip(restaurantIndex);
+                }
+                newOpenBySlot[slot] = copy;
+                previousSlot = slot;
+            }
+        });
+        return new OpenHoursBitmapIndex(newRestaurants, newOpenBySlot);
+    }
+
+    public int size() {
+        return restaurants.length;
+    }
+
+    public List<Restaurant> getOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        return getOpenRestaurantsInSlot(OpenHoursSlots.slotOf(dayOfWeek, localTime));
+    }
+
+    public List<Restaurant> getOpenRestaurantsInSlot(final int slot) {
+        final BitSet open = openBySlot[slot];
+        final List<Restaurant> result = new ArrayList<>(open.cardinality());
+        for (int i = open.nextSetBit(0); i >= 0; i = open.nextSetBit(i + 1)) {
+            result.add(restaurants[i]);
+        }
+        return result;
+    }
+
+    public int countOpenRestaurantsInSlot(final int slot) {
+        return openBySlot[slot].cardinality();
+    }
+
+    private static BitSet openSlots(final Restaurant restaurant) {
+        final BitSet slots = new BitSet(SLOTS_PER_WEEK);
+        OpenHoursSlots.forEachOpenRange(restaurant.getOpenHoursMap(), (firstSlot, lastSlot) -> slots.set(firstSlot, lastSlot + 1));
+        return slots;
+    }
+
+    private static void toggle(final BitSet[] toggles, final int slot, final int restaurantIndex) {
+        if (toggles[slot] == null) {
+            toggles[slot] = new BitSet();
+        }
+        toggles[slot].flip(restaurantIndex);
+    }
+}
@@ -0,0 +1,268 @@
+package com.hologramsciences;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hologramsciences.OpenHoursSlots.SLOTS_PER_WEEK;
+
+/**
+ *
+ *  Answers "open at any point between from and to" and "open for the whole window [from, to]" for the open logic of
+ *  CSVRestaurantService.getOpenRestaurants, without evaluating every instant of the window.
+ *
+ *  Every restaurant's open slots (see OpenHoursSlots) are turned into closed intervals on the slot line.  Ranges
+ *  that touch across the end of the week are joined, and every interval is stored a second time one week later
+ *  (intervals crossing the end of the week also one week earlier), so any window starting inside the week is
+ *  answered without wrapping.
+ *
+ *  Both queries are three sided: intervals with start <= X and end >= Y.
+ *
+ *    anytime    [a, b]:  start <= b  and  end >= a
+ *    throughout [a, b]:  start <= a  and  end >= b
+ *
+ *  They are answered by a priority search tree over the intervals sorted by start: every node holds the
+ *  interval with the greatest end among its subtree and the remaining intervals are split by position.
+ *  A query visits O(log n + k) nodes for k reported intervals.
+ *
+ */
+public class OpenHoursIntervalIndex {
+    // Stands in for restaurants which are open in every slot of the week
+    private static final int ALWAYS_OPEN_START = -2 * SLOTS_PER_WEEK;
+    private static final int ALWAYS_OPEN_END   = 4 * SLOTS_PER_WEEK;
+
+    private final Restaurant[] restaurants;
+
+    // intervals, sorted by start
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] owners;
+
+    // priority search tree nodes
+    private final int[] nodeInterval;
+    private final int[] leftChild;
+    private final int[] rightChild;
+    private final int[] leftFirstInterval;
+    private final int[] rightFirstInterval;
+    private final int root;
+    private int nodeCount;
+
+    public OpenHoursIntervalIndex(final List<Restaurant> restaurantList) {
+        this.restaurants = restaurantList.toArray(new Restaurant[0]);
+
+        final IntervalList intervals = new IntervalList();
+        final IntervalList ranges = new IntervalList();
+        for (int i = 0; i < restaurants.length; i++) {
+            ranges.size = 0;
+            OpenHoursSlots.forEachOpenRange(restaurants[i].getOpenHoursMap(), (firstSlot, lastSlot) -> ranges.add(firstSlot, lastSlot, -1));
+            addWeeklyOccurrences(ranges, i, intervals);
+        }
+
+        // sort by start, keeping the position of each interval in the low 32 bits
+        final int size = intervals.size;
+        final long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) intervals.starts[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        this.starts = new int[size];
+        this.ends   = new int[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int position = (int) order[i];
+            starts[i] = intervals.starts[position];
+            ends[i]   = intervals.ends[position];
+            owners[i] = intervals.owners[position];
+        }
+
+        this.nodeInterval       = new int[size];
+        this.leftChild          = new int[size];
+        this.rightChild         = new int[size];
+        this.leftFirstInterval  = new int[size];
+        this.rightFirstInterval = new int[size];
+
+        final int[] remaining = new int[size];
+        for (int i = 0; i < size; i++) {
+            remaining[i] = i;
+        }
+        this.root = build(remaining, 0, size);
+    }
+
+    /**
+     *  Restaurants which are open for at least one instant of [from, to], in the order of the restaurant list
+     */
+    public List<Restaurant> getRestaurantsOpenAnytimeBetween(final LocalDateTime from, final LocalDateTime to) {
+        final int firstSlot = OpenHoursSlots.slotOf(from.getDayOfWeek(), from.toLocalTime());
+        return getRestaurantsOpenAnytimeInSlots(firstSlot, lastSlotOfWindow(firstSlot, from, to));
+    }
+
+    /**
+     *  Restaurants which are open for every instant of [from, to], in the order of the restaurant list
+     */
+    public List<Restaurant> getRestaurantsOpenThroughout(final LocalDateTime from, final LocalDateTime to) {
+        final int firstSlot = OpenHoursSlots.slotOf(from.getDayOfWeek(), from.toLocalTime());
+        return getRestaurantsOpenThroughoutSlots(firstSlot, lastSlotOfWindow(firstSlot, from, to));
+    }
+
+    /**
+     *  firstSlot is a slot of the week, lastSlot may run up to one week past it
+     */
+    public List<Restaurant> getRestaurantsOpenAnytimeInSlots(final int firstSlot, final int lastSlot) {
+        return query(upperBound(lastSlot), firstSlot);
+    }
+
+    public List<Restaurant> getRestaurantsOpenThroughoutSlots(final int firstSlot, final int lastSlot) {
+        return query(upperBound(firstSlot), lastSlot);
+    }
+
+    private static int lastSlotOfWindow(final int firstSlot, final LocalDateTime from, final LocalDateTime to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Window ends before it starts: " + from + " - " + to);
+        }
+
+        final Duration duration = Duration.between(from, to);
+        if (duration.compareTo(Duration.ofDays(7)) >= 0) {
+            return firstSlot + SLOTS_PER_WEEK - 1;
+        }
+
+        final int toSlot = OpenHoursSlots.slotOf(to.getDayOfWeek(), to.toLocalTime());
+        final int slotCount = Math.floorMod(toSlot - firstSlot, SLOTS_PER_WEEK);
+        if (slotCount == 0 && duration.toMinutes() > 0) {
+            return firstSlot + SLOTS_PER_WEEK - 1;
+        }
+        return firstSlot + slotCount;
+    }
+
+    private List<Restaurant> query(final int intervalCount, final int minimumEnd) {
+        final IntervalList found = new IntervalList();
+        report(root, intervalCount, minimumEnd, found);
+
+        // a restaurant is reported once for every matching interval it owns
+        final int[] restaurantIndexes = Arrays.copyOf(found.owners, found.size);
+        Arrays.sort(restaurantIndexes);
+
+        final List<Restaurant> result = new ArrayList<>(restaurantIndexes.length);
+        for (int i = 0; i < restaurantIndexes.length; i++) {
+            if (i == 0 || restaurantIndexes[i] != restaurantIndexes[i - 1]) {
+                result.add(restaurants[restaurantIndexes[i]]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     *  Reports the owners of all intervals with index < intervalCount and end >= minimumEnd in the subtree of node
+     */
+    private void report(final int node, final int intervalCount, final int minimumEnd, final IntervalList found) {
+        if (node < 0) {
+            return;
+        }
+
+        final int interval = nodeInterval[node];
+        if (ends[interval] < minimumEnd) {
+            return;
+        }
+        if (interval < intervalCount) {
+            found.add(starts[interval], ends[interval], owners[interval]);
+        }
+
+        if (leftChild[node] >= 0 && leftFirstInterval[node] < intervalCount) {
+            report(leftChild[node], intervalCount, minimumEnd, found);
+        }
+        if (rightChild[node] >= 0 && rightFirstInterval[node] < intervalCount) {
+            report(rightChild[node], intervalCount, minimumEnd, found);
+        }
+    }
+
+    /**
+     *  remaining[from, to) holds the ascending indexes of the intervals still to be placed in this subtree
+     */
+    private int build(final int[] remaining, final int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+
+        int greatestEnd = from;
+        for (int i = from + 1; i < to; i++) {
+            if (ends[remaining[i]] > ends[remaining[greatestEnd]]) {
+                greatestEnd = i;
+            }
+        }
+
+        final int node = nodeCount++;
+        nodeInterval[node] = remaining[greatestEnd];
+        System.arraycopy(remaining, greatestEnd + 1, remaining, greatestEnd, to - greatestEnd - 1);
+        to--;
+
+        final int middle = (from + to) >>> 1;
+        leftFirstInterval[node]  = from < middle ? remaining[from] : -1;
+        rightFirstInterval[node] = middle < to ? remaining[middle] : -1;
+        leftChild[node]  = build(remaining, from, middle);
+        rightChild[node] = build(remaining, middle, to);
+        return node;
+    }
+
+    private static void addWeeklyOccurrences(final IntervalList ranges, final int restaurantIndex, final IntervalList intervals) {
+        int first = 0;
+        int last = ranges.size - 1;
+        if (last < 0) {
+            return;
+        }
+
+        if (first == last && ranges.starts[0] == 0 && ranges.ends[0] == SLOTS_PER_WEEK - 1) {
+            intervals.add(ALWAYS_OPEN_START, ALWAYS_OPEN_END, restaurantIndex);
+            return;
+        }
+
+        if (first < last && ranges.starts[first] == 0 && ranges.ends[last] == SLOTS_PER_WEEK - 1) {
+            final int start = ranges.starts[last];
+            final int end = ranges.ends[first] + SLOTS_PER_WEEK;
+            intervals.add(start - SLOTS_PER_WEEK, end - SLOTS_PER_WEEK, restaurantIndex);
+            intervals.add(start, end, restaurantIndex);
+            intervals.add(start + SLOTS_PER_WEEK, end + SLOTS_PER_WEEK, restaurantIndex);
+            first++;
+            last--;
+        }
+
+        for (int i = first; i <= last; i++) {
+            intervals.add(ranges.starts[i], ranges.ends[i], restaurantIndex);
+            intervals.add(ranges.starts[i] + SLOTS_PER_WEEK, ranges.ends[i] + SLOTS_PER_WEEK, restaurantIndex);
+        }
+    }
+
+    private int upperBound(final int slot) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (starts[middle] <= slot) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static class IntervalList {
+        private int[] starts = new int[16];
+        private int[] ends   = new int[16];
+        private int[] owners = new int[16];
+        private int size;
+
+        private void add(final int start, final int end, final int owner) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends   = Arrays.copyOf(ends, size * 2);
+                owners = Arrays.copyOf(owners, size * 2);
+            }
+            starts[size] = start;
+            ends[size]   = end;
+            owners[size] = owner;
+            size++;
+        }
+    }
+}
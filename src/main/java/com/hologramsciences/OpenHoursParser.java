@@ -0,0 +1,228 @@
+package com.hologramsciences;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ *
+ *  Single pass parser for the open hours column of rest_hours.csv, e.g.
+ *
+ *   Mon,Tue,Wed,Thu,Sun|11:00-22:00;Fri,Sat|11:00-00:00
+ *
+ *  Every group (days|start-end) is decoded into a bit mask of days (bit 0 is MONDAY) and the start and end minute of
+ *  the day, without allocating, and handed to a GroupConsumer.  A day listed in more than one group takes the hours
+ *  of the last one, like repeated puts into a map.
+ *
+ *  Errors are reported like the StringTokenizer / LocalTime.parse parser it replaces, and checked in its order:
+ *
+ *   UnsupportedOperationException   start and end time of a group are the same
+ *   NoSuchElementException          unknown day, or a group without '|' or '-'
+ *   DateTimeParseException          a time that is not HH:mm
+ *
+ */
+public class OpenHoursParser {
+    @FunctionalInterface
+    public interface GroupConsumer {
+        void accept(final int dayMask, final int startMinuteOfDay, final int endMinuteOfDay);
+    }
+
+    public static void parse(final CharSequence text, final GroupConsumer consumer) {
+        final int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            if (text.charAt(i) == ';') {
+                i++;
+                continue;
+            }
+
+            final int daysStart = i;
+            final int daysEnd = indexOfAny(text, i, length, '|', ';');
+            if (daysEnd == length || text.charAt(daysEnd) == ';') {
+                throw new NoSuchElementException("Missing '|' in open hours: " + text);
+            }
+            i = daysEnd + 1;
+
+            final int startEnd = indexOfAny(text, i, length, '-', ';');
+            if (startEnd == length || text.charAt(startEnd) != '-') {
+                throw new NoSuchElementException("Missing '-' in open hours: " + text);
+            }
+            final int groupEnd = indexOf(text, startEnd + 1, length, ';');
+
+            // before the days and the times are decoded, like the tokenizer parser compared the two time strings
+            if (sameText(text, i, startEnd, startEnd + 1, groupEnd)) {
+                throw new UnsupportedOperationException("Start time and end time are same");
+            }
+
+            int dayMask = 0;
+            int day = daysStart;
+            while (day < daysEnd) {
+                final int dayEnd = indexOf(text, day, daysEnd, ',');
+                if (dayEnd > day) {
+                    dayMask |= 1 << dayIndexOf(text, day, dayEnd);
+                }
+                day = dayEnd + 1;
+            }
+
+            final int startMinuteOfDay = minuteOfDay(text, i, startEnd);
+            final int endMinuteOfDay = minuteOfDay(text, startEnd + 1, groupEnd);
+
+            consumer.accept(dayMask, startMinuteOfDay, endMinuteOfDay);
+            i = groupEnd;
+        }
+    }
+
+    /**
+     *  Decodes into target, which is cleared first, so one PackedOpenHours can be reused for every record
+     */
+    public static void parse(final CharSequence text, final PackedOpenHours target) {
+        target.clear();
+        parse(text, (GroupConsumer) target);
+    }
+
+    /**
+     *  The map CSVRestaurantService.parseOpenHour returns, all days of a group share one OpenHours instance
+     */
+    public static Map<DayOfWeek, Restaurant.OpenHours> parseOpenHoursMap(final CharSequence text) {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        parse(text, (dayMask, startMinuteOfDay, endMinuteOfDay) -> {
+            final Restaurant.OpenHours openHours = new Restaurant.OpenHours(localTimeOf(startMinuteOfDay), localTimeOf(endMinuteOfDay));
+            for (int day = 0; day < 7; day++) {
+                if ((dayMask & (1 << day)) != 0) {
+                    openHoursMap.put(DayOfWeek.of(day + 1), openHours);
+                }
+            }
+        });
+        return openHoursMap;
+    }
+
+    public static LocalTime localTimeOf(final int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static boolean sameText(final CharSequence text, final int from, final int to, final int otherFrom, final int otherTo) {
+        if (to - from != otherTo - otherFrom) {
+            return false;
+        }
+        for (int i = 0; i < to - from; i++) {
+            if (text.charAt(from + i) != text.charAt(otherFrom + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final CharSequence text, final int from, final int to, final char a) {
+        return indexOfAny(text, from, to, a, a, a);
+    }
+
+    private static int indexOfAny(final CharSequence text, final int from, final int to, final char a, final char b) {
+        return indexOfAny(text, from, to, a, b, b);
+    }
+
+    private static int indexOfAny(final CharSequence text, final int from, final int to, final char a, final char b, final char c) {
+        for (int i = from; i < to; i++) {
+            final char ch = text.charAt(i);
+            if (ch == a || ch == b || ch == c) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     *  0 for Mon ... 6 for Sun, the names CSVRestaurantService.getDayOfWeek accepts
+     */
+    private static int dayIndexOf(final CharSequence text, final int from, final int to) {
+        if (to - from == 3) {
+            final char a = text.charAt(from);
+            final char b = text.charAt(from + 1);
+            final char c = text.charAt(from + 2);
+
+            if (a == 'M' && b == 'o' && c == 'n') return 0;
+            if (a == 'T' && b == 'u' && c == 'e') return 1;
+            if (a == 'W' && b == 'e' && c == 'd') return 2;
+            if (a == 'T' && b == 'h' && c == 'u') return 3;
+            if (a == 'F' && b == 'r' && c == 'i') return 4;
+            if (a == 'S' && b == 'a' && c == 't') return 5;
+            if (a == 'S' && b == 'u' && c == 'n') return 6;
+        }
+        throw new NoSuchElementException("Unknown day: " + text.subSequence(from, to));
+    }
+
+    private static int minuteOfDay(final CharSequence text, final int from, final int to) {
+        if (to - from == 5 && text.charAt(from + 2) == ':') {
+            final int hour = twoDigits(text, from);
+            final int minute = twoDigits(text, from + 3);
+            if (hour >= 0 && hour < 24 && minute >= 0 && minute < 60) {
+                return hour * 60 + minute;
+            }
+        }
+        final String time = text.subSequence(from, to).toString();
+        throw new DateTimeParseException("Text '" + time + "' could not be parsed", time, 0);
+    }
+
+    private static int twoDigits(final CharSequence text, final int from) {
+        final int tens = text.charAt(from) - '0';
+        final int ones = text.charAt(from + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    /**
+     *
+     *  Open hours of one restaurant as one int per day, (startMinuteOfDay << 16) | endMinuteOfDay, or CLOSED.
+     *
+     *  Not thread safe, meant to be reused record after record.
+     *
+     */
+    public static class PackedOpenHours implements GroupConsumer {
+        public static final int CLOSED = -1;
+
+        private final int[] packedByDay = new int[7];
+
+        public PackedOpenHours() {
+            clear();
+        }
+
+        public void clear() {
+            Arrays.fill(packedByDay, CLOSED);
+        }
+
+        @Override
+        public void accept(final int dayMask, final int startMinuteOfDay, final int endMinuteOfDay) {
+            final int packed = (startMinuteOfDay << 16) | endMinuteOfDay;
+            for (int day = 0; day < 7; day++) {
+                if ((dayMask & (1 << day)) != 0) {
+                    packedByDay[day] = packed;
+                }
+            }
+        }
+
+        public boolean isOpen(final DayOfWeek dayOfWeek) {
+            return packedByDay[dayOfWeek.getValue() - 1] != CLOSED;
+        }
+
+        public int getStartMinuteOfDay(final DayOfWeek dayOfWeek) {
+            return packedByDay[dayOfWeek.getValue() - 1] >>> 16;
+        }
+
+        public int getEndMinuteOfDay(final DayOfWeek dayOfWeek) {
+            return packedByDay[dayOfWeek.getValue() - 1] & 0xFFFF;
+        }
+
+        /**
+         *  The raw int for the day, CLOSED or (startMinuteOfDay << 16) | endMinuteOfDay
+         */
+        public int getPacked(final DayOfWeek dayOfWeek) {
+            return packedByDay[dayOfWeek.getValue() - 1];
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.hologramsciences;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ *
+ *  Maps the open logic of CSVRestaurantService.isOpen onto a fixed grid of slots covering one week.
+ *
+ *  Every minute of the week gets two slots: an even slot for the instant the minute starts (hh:mm:00.000)
+ *  and an odd slot for all instants strictly inside the minute.  Open hours are minute aligned (like
+ *  rest_hours.csv and the *_minute_of_day columns in schema.sql), so every comparison isOpen makes has
+ *  the same outcome for all instants that fall into the same slot.
+ *
+ *  Slot 0 is MONDAY 00:00, slot SLOTS_PER_WEEK - 1 is the inside of SUNDAY 23:59.
+ *
+ */
+public class OpenHoursSlots {
+    public static final int MINUTES_PER_DAY  = 24 * 60;
+    public static final int SLOTS_PER_MINUTE = 2;
+    public static final int SLOTS_PER_DAY    = MINUTES_PER_DAY * SLOTS_PER_MINUTE;
+    public static final int SLOTS_PER_WEEK   = SLOTS_PER_DAY * 7;
+
+    /**
+     *  Up to and including 05:00 a time is answered from the open hours of the previous day
+     */
+    public static final int LAST_AFTER_MIDNIGHT_SLOT_OF_DAY = 5 * 60 * SLOTS_PER_MINUTE;
+
+    @FunctionalInterface
+    public interface SlotRangeConsumer {
+        void accept(final int firstSlot, final int lastSlot);
+    }
+
+    public static int slotOf(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        return (dayOfWeek.getValue() - 1) * SLOTS_PER_DAY + slotOfDay(localTime);
+    }
+
+    public static int slotOfDay(final LocalTime localTime) {
+        final int minuteOfDay = localTime.getHour() * 60 + localTime.getMinute();
+        final boolean onTheMinute = localTime.getSecond() == 0 && localTime.getNano() == 0;
+        return minuteOfDay * SLOTS_PER_MINUTE + (onTheMinute ? 0 : 1);
+    }
+
+    public static DayOfWeek dayOfWeekOfSlot(final int slot) {
+        return DayOfWeek.of(slot / SLOTS_PER_DAY + 1);
+    }
+
+    /**
+     *  The first instant of the slot, for an odd slot this is 30 seconds into the minute
+     */
+    public static LocalTime localTimeOfSlot(final int slot) {
+        final int slotOfDay = slot % SLOTS_PER_DAY;
+        return LocalTime.ofSecondOfDay((slotOfDay / SLOTS_PER_MINUTE) * 60L + (slotOfDay % SLOTS_PER_MINUTE) * 30L);
+    }
+
+    public static int slotOfMinute(final LocalTime minuteAlignedTime) {
+        return (minuteAlignedTime.getHour() * 60 + minuteAlignedTime.getMinute()) * SLOTS_PER_MINUTE;
+    }
+
+    /**
+     *
+     *  Reports every slot of the week in which the restaurant is open, as inclusive [firstSlot, lastSlot] ranges.
+     *
+     *  The ranges are reported in ascending order, never overlap, and adjacent ranges are merged, except across the
+     *  end of the week: a range ending at SLOTS_PER_WEEK - 1 and a range starting at 0 are reported separately.
+     *
+     */
+    public static void forEachOpenRange(final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap, final SlotRangeConsumer consumer) {
+        final RangeMerger merger = new RangeMerger(consumer);
+
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            final int firstSlotOfDay = (dayOfWeek.getValue() - 1) * SLOTS_PER_DAY;
+
+            final Restaurant.OpenHours previous = openHoursMap.get(dayOfWeek.minus(1));
+            if (previous != null && previous.spansMidnight()) {
+                final int start = slotOfMinute(previous.getStartTime());
+                final int end   = Math.min(slotOfMinute(previous.getEndTime()), LAST_AFTER_MIDNIGHT_SLOT_OF_DAY);
+
+                if (start <= end + 1) {
+                    merger.add(firstSlotOfDay, firstSlotOfDay + LAST_AFTER_MIDNIGHT_SLOT_OF_DAY);
+                } else {
+                    merger.add(firstSlotOfDay, firstSlotOfDay + end);
+                    if (start <= LAST_AFTER_MIDNIGHT_SLOT_OF_DAY) {
+                        merger.add(firstSlotOfDay + start, firstSlotOfDay + LAST_AFTER_MIDNIGHT_SLOT_OF_DAY);
+                    }
+                }
+            }
+
+            final Restaurant.OpenHours current = openHoursMap.get(dayOfWeek);
+            if (current != null) {
+                final int start = Math.max(slotOfMinute(current.getStartTime()), LAST_AFTER_MIDNIGHT_SLOT_OF_DAY + 1);
+                final int end   = slotOfMinute(current.getEndTime());
+                if (start <= end) {
+                    merger.add(firstSlotOfDay + start, firstSlotOfDay + end);
+                }
+            }
+        }
+
+        merger.flush();
+    }
+
+    private static class RangeMerger {
+        private final SlotRangeConsumer consumer;
+        private int first = -1;
+        private int last = -1;
+
+        private RangeMerger(final SlotRangeConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        private void add(final int firstSlot, final int lastSlot) {
+            if (first >= 0 && firstSlot == last + 1) {
+                last = lastSlot;
+            } else {
+                flush();
+                first = firstSlot;
+                last = lastSlot;
+            }
+        }
+
+        private void flush() {
+            if (first >= 0) {
+                consumer.accept(first, last);
+                first = -1;
+            }
+        }
+    }
+}
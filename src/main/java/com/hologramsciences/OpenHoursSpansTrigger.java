@@ -0,0 +1,155 @@
+package com.hologramsciences;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.h2.api.Trigger;
+
+import static com.hologramsciences.OpenHoursSlots.MINUTES_PER_DAY;
+
+/**
+ *
+ *  Keeps the open_hours_spans table of schema.sql in step with open_hours.
+ *
+ *  An open_hours row becomes the spans of minutes of the week in which SQLRestaurantService.getOpenRestaurants reports
+ *  the restaurant as open, minute of week 0 being MONDAY 00:00.  The spans give the same answers as the predicate the
+ *  query used to evaluate on open_hours:
+ *
+ *  start &lt;= end                  [start, end] on the day of the row
+ *  start &gt; end, end != 0         [0, end - 1] and [start, 1439] on the following day
+ *  start &gt; end, end == 0         no span
+ *
+ *  No span crosses the start of a day, so a lookup only has to scan the spans starting on the day it asks for.
+ *
+ *  Registered in schema.sql for inserts and updates, deleting an open_hours row cascades to its spans.
+ *
+ */
+public class OpenHoursSpansTrigger implements Trigger {
+    public static final int MINUTES_PER_WEEK = MINUTES_PER_DAY * 7;
+
+    private static final int ID_COLUMN                       = 0;
+    private static final int RESTAURANT_ID_COLUMN            = 1;
+    private static final int DAY_OF_WEEK_COLUMN              = 2;
+    private static final int START_TIME_MINUTE_OF_DAY_COLUMN = 3;
+    private static final int END_TIME_MINUTE_OF_DAY_COLUMN   = 4;
+
+    private static final String INSERT_SPAN = "insert into open_hours_spans (open_hours_id, restaurant_id, day_of_week_number, start_minute_of_week, end_minute_of_week) values (?, ?, ?, ?, ?)";
+    private static final String DELETE_SPANS = "delete from open_hours_spans where open_hours_id = ?";
+
+    private static final String SELECT_OPEN_HOURS_WITHOUT_SPANS = String.join("\n"
+            , "select oh.id, oh.restaurant_id, oh.day_of_week, oh.start_time_minute_of_day, oh.end_time_minute_of_day"
+            , " from open_hours oh"
+            , " where not exists (select 1 from open_hours_spans s where s.open_hours_id = oh.id)"
+    );
+
+    /**
+     *  An inclusive range of minutes of the week, within a single day
+     */
+    public static class Span {
+        private final DayOfWeek dayOfWeek;
+        private final int startMinuteOfWeek;
+        private final int endMinuteOfWeek;
+
+        public Span(final DayOfWeek dayOfWeek, final int startMinuteOfDay, final int endMinuteOfDay) {
+            this.dayOfWeek = dayOfWeek;
+            this.startMinuteOfWeek = minuteOfWeek(dayOfWeek, startMinuteOfDay);
+            this.endMinuteOfWeek = minuteOfWeek(dayOfWeek, endMinuteOfDay);
+        }
+
+        public DayOfWeek getDayOfWeek() {
+            return dayOfWeek;
+        }
+
+        public int getStartMinuteOfWeek() {
+            return startMinuteOfWeek;
+        }
+
+        public int getEndMinuteOfWeek() {
+            return endMinuteOfWeek;
+        }
+    }
+
+    public static int minuteOfWeek(final DayOfWeek dayOfWeek, final int minuteOfDay) {
+        return (dayOfWeek.getValue() - 1) * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    public static int firstMinuteOfWeek(final DayOfWeek dayOfWeek) {
+        return minuteOfWeek(dayOfWeek, 0);
+    }
+
+    public static List<Span> spansOf(final DayOfWeek dayOfWeek, final int startMinuteOfDay, final int endMinuteOfDay) {
+        final List<Span> spans = new ArrayList<>(2);
+        if (startMinuteOfDay <= endMinuteOfDay) {
+            spans.add(new Span(dayOfWeek, startMinuteOfDay, endMinuteOfDay));
+        } else if (endMinuteOfDay != 0) {
+            final DayOfWeek nextDayOfWeek = dayOfWeek.plus(1);
+            spans.add(new Span(nextDayOfWeek, 0, endMinuteOfDay - 1));
+            spans.add(new Span(nextDayOfWeek, startMinuteOfDay, MINUTES_PER_DAY - 1));
+        }
+        return spans;
+    }
+
+    /**
+     *  Adds the spans of open_hours rows which have none yet, e.g. rows written before the table existed
+     */
+    public static void insertMissingSpans(final Connection connection) throws SQLException {
+        try (
+                final Statement statement = connection.createStatement();
+                final ResultSet rs = statement.executeQuery(SELECT_OPEN_HOURS_WITHOUT_SPANS);
+                final PreparedStatement insertSpan = connection.prepareStatement(INSERT_SPAN)
+        ) {
+            boolean hasBatch = false;
+            while (rs.next()) {
+                hasBatch |= addSpans(insertSpan, rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getInt(4), rs.getInt(5));
+            }
+            if (hasBatch) {
+                insertSpan.executeBatch();
+            }
+        }
+    }
+
+    @Override
+    public void fire(final Connection connection, final Object[] oldRow, final Object[] newRow) throws SQLException {
+        if (oldRow != null) {
+            try (final PreparedStatement deleteSpans = connection.prepareStatement(DELETE_SPANS)) {
+                deleteSpans.setLong(1, ((Number) oldRow[ID_COLUMN]).longValue());
+                deleteSpans.executeUpdate();
+            }
+        }
+
+        if (newRow != null) {
+            try (final PreparedStatement insertSpan = connection.prepareStatement(INSERT_SPAN)) {
+                final boolean hasBatch = addSpans(
+                        insertSpan,
+                        ((Number) newRow[ID_COLUMN]).longValue(),
+                        ((Number) newRow[RESTAURANT_ID_COLUMN]).longValue(),
+                        (String) newRow[DAY_OF_WEEK_COLUMN],
+                        ((Number) newRow[START_TIME_MINUTE_OF_DAY_COLUMN]).intValue(),
+                        ((Number) newRow[END_TIME_MINUTE_OF_DAY_COLUMN]).intValue()
+                );
+                if (hasBatch) {
+                    insertSpan.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static boolean addSpans(final PreparedStatement insertSpan, final long openHoursId, final long restaurantId, final String dayOfWeek, final int startMinuteOfDay, final int endMinuteOfDay) throws SQLException {
+        final List<Span> spans = spansOf(DayOfWeek.valueOf(dayOfWeek), startMinuteOfDay, endMinuteOfDay);
+        for (final Span span : spans) {
+            insertSpan.setLong(1, openHoursId);
+            insertSpan.setLong(2, restaurantId);
+            insertSpan.setInt(3, span.getDayOfWeek().getValue());
+            insertSpan.setInt(4, span.getStartMinuteOfWeek());
+            insertSpan.setInt(5, span.getEndMinuteOfWeek());
+            insertSpan.addBatch();
+        }
+        return !spans.isEmpty();
+    }
+}
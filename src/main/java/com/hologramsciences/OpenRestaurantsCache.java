@@ -0,0 +1,288 @@
+package com.hologramsciences;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.hologramsciences.jooq.tables.records.RestaurantsRecord;
+import com.hologramsciences.sql.RestaurantRecord;
+
+import static java.time.temporal.ChronoField.MINUTE_OF_DAY;
+
+/**
+ *
+ *  Caches the results of a getOpenRestaurants(DayOfWeek, LocalTime) method.
+ *
+ *  Those results only depend on the time of the week the arguments fall into (a minute for the SQL services, a slot of
+ *  OpenHoursSlots for CSVRestaurantService) and on the data, so there are at most a few ten thousand keys.  Up to
+ *  maximumSize results are kept, evicted least recently used first.
+ *
+ *  Every entry remembers the data version it was loaded at.  When the dataVersion supplier reports another version
+ *  all entries are dropped, and a load that overlapped with the change is returned to its caller but not cached.
+ *
+ *  Concurrent misses for the same key share a single load, the other callers wait for its result.
+ *
+ *  The cached lists are unmodifiable and shared between callers.
+ *
+ */
+public class OpenRestaurantsCache<T, E extends Exception> {
+    public static final int DEFAULT_MAXIMUM_SIZE = 2048;
+
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception> {
+        List<T> load(final DayOfWeek dayOfWeek, final LocalTime localTime) throws E;
+    }
+
+    @FunctionalInterface
+    public interface KeyFunction {
+        int keyOf(final DayOfWeek dayOfWeek, final LocalTime localTime);
+    }
+
+    private final Loader<T, E> loader;
+    private final KeyFunction keyFunction;
+    private final LongSupplier dataVersion;
+    private final int maximumSize;
+
+    private final Map<Integer, List<T>> entries;
+    private final ConcurrentHashMap<Load, CompletableFuture<List<T>>> loads = new ConcurrentHashMap<>();
+    private long entriesVersion;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sharedLoads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LatencyHistogram loadTime = new LatencyHistogram();
+
+    public OpenRestaurantsCache(final Loader<T, E> loader, final KeyFunction keyFunction, final LongSupplier dataVersion, final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.loader = loader;
+        this.keyFunction = keyFunction;
+        this.dataVersion = dataVersion;
+        this.maximumSize = maximumSize;
+        this.entriesVersion = dataVersion.getAsLong();
+        this.entries = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, List<T>> eldest) {
+                if (size() > OpenRestaurantsCache.this.maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static OpenRestaurantsCache<Restaurant, RuntimeException> of(final CSVRestaurantService csvRestaurantService) {
+        return of(csvRestaurantService, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     *  Keyed by slot, since CSVRestaurantService tells apart times on and inside a minute.  Every update of the
+     *  service, e.g. by a CSVRestaurantReloader, bumps its data version and so empties the cache.
+     */
+    public static OpenRestaurantsCache<Restaurant, RuntimeException> of(final CSVRestaurantService csvRestaurantService, final int maximumSize) {
+        return new OpenRestaurantsCache<>(csvRestaurantService::getOpenRestaurants, OpenHoursSlots::slotOf, csvRestaurantService::getDataVersion, maximumSize);
+    }
+
+    public static OpenRestaurantsCache<RestaurantRecord, SQLException> of(final SQLRestaurantService sqlRestaurantService) {
+        return of(sqlRestaurantService, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     *  Keyed by minute of the week, invalidated by SQLRestaurantService.getDataVersion
+     */
+    public static OpenRestaurantsCache<RestaurantRecord, SQLException> of(final SQLRestaurantService sqlRestaurantService, final int maximumSize) {
+        return new OpenRestaurantsCache<>(sqlRestaurantService::getOpenRestaurants, OpenRestaurantsCache::minuteOfWeek, sqlRestaurantService::getDataVersion, maximumSize);
+    }
+
+    public static OpenRestaurantsCache<RestaurantsRecord, SQLException> of(final JooqRestaurantService jooqRestaurantService) {
+        return of(jooqRestaurantService, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public static OpenRestaurantsCache<RestaurantsRecord, SQLException> of(final JooqRestaurantService jooqRestaurantService, final int maximumSize) {
+        final SQLRestaurantService sqlRestaurantService = jooqRestaurantService.getSQLRestaurantService();
+        return new OpenRestaurantsCache<>(jooqRestaurantService::getOpenRestaurants, OpenRestaurantsCache::minuteOfWeek, sqlRestaurantService::getDataVersion, maximumSize);
+    }
+
+    public static int minuteOfWeek(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        return OpenHoursSpansTrigger.minuteOfWeek(dayOfWeek, localTime.get(MINUTE_OF_DAY));
+    }
+
+    public List<T> getOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) throws E {
+        final int key = keyFunction.keyOf(dayOfWeek, localTime);
+        final long version = dataVersion.getAsLong();
+
+        synchronized (entries) {
+            if (version != entriesVersion) {
+                entries.clear();
+                entriesVersion = version;
+                invalidations.incrementAndGet();
+            }
+            final List<T> cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        final Load load = new Load(version, key);
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        final CompletableFuture<List<T>> running = loads.putIfAbsent(load, result);
+        if (running != null) {
+            sharedLoads.incrementAndGet();
+            return await(running);
+        }
+
+        try {
+            final long startNanos = System.nanoTime();
+            final List<T> restaurants = Collections.unmodifiableList(loader.load(dayOfWeek, localTime));
+            loadTime.recordSince(startNanos);
+
+            synchronized (entries) {
+                if (version == entriesVersion && version == dataVersion.getAsLong()) {
+                    entries.put(key, restaurants);
+                }
+            }
+            result.complete(restaurants);
+            return restaurants;
+        } catch (Exception | Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(load, result);
+        }
+    }
+
+    /**
+     *  Rethrows the failure of a shared load, which the loader threw as E or unchecked
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> await(final CompletableFuture<List<T>> running) throws E {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return running.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw (E) cause;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     *  Lookups not answered from the cache, including those which waited for a shared load
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getSharedLoads() {
+        return sharedLoads.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public double getHitRate() {
+        final long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0.0 : (double) getHits() / lookups;
+    }
+
+    /**
+     *  Time the loader took for the loads which completed
+     */
+    public LatencyHistogram getLoadTime() {
+        return loadTime;
+    }
+
+    @Override
+    public String toString() {
+        return "OpenRestaurantsCache{" +
+                "size=" + size() +
+                ", maximumSize=" + maximumSize +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", sharedLoads=" + getSharedLoads() +
+                ", evictions=" + getEvictions() +
+                ", invalidations=" + getInvalidations() +
+                ", loadTime=" + loadTime +
+                '}';
+    }
+
+    private static final class Load {
+        private final long version;
+        private final int key;
+
+        private Load(final long version, final int key) {
+            this.version = version;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Load)) {
+                return false;
+            }
+            final Load load = (Load) o;
+            return version == load.version && key == load.key;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(version) * 31 + key;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import io.atlassian.fugue.Option;
+
+/**
+ *
+ *  Parses a rest_hours.csv style file on a ForkJoinPool, e.g. with CSVRestaurantService::parse.
+ *
+ *  The file is memory mapped and cut into blocks of about chunkSize bytes, in two parallel passes:
+ *
+ *   1. every block counts its '"' and '\n' bytes and finds its first '\n' outside quotes, both for the case that the
+ *      block starts outside quotes and that it starts inside a quoted field.  A prefix sum of the quote counts then
+ *      tells which case applies to each block (RFC4180 escapes a quote by doubling it, so an odd count toggles),
+ *      and so where the first record of each chunk starts, quoted commas and line breaks included.
+ *
+ *   2. every chunk is decoded and parsed with commons-csv on its own.
+ *
+ *  Records keep the order of the file, and records the parser rejects (Option.none() or an exception) are reported
+ *  with the line they start on.
+ *
+ */
+public class ParallelCSVLoader {
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final ForkJoinPool forkJoinPool;
+    private final int chunkSize;
+
+    public ParallelCSVLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelCSVLoader(final ForkJoinPool forkJoinPool, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.forkJoinPool = forkJoinPool;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> Result<T> load(final Path path, final Function<CSVRecord, Option<T>> parser) throws IOException {
+        final long startNanos = System.nanoTime();
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int blockCount = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+            final List<ForkJoinTask<BlockScan>> scanTasks = new ArrayList<>(blockCount);
+            for (int block = 0; block < blockCount; block++) {
+                final long blockStart = block * (long) chunkSize;
+                final long blockEnd = Math.min(size, blockStart + chunkSize);
+                scanTasks.add(forkJoinPool.submit(() -> scan(channel, blockStart, blockEnd)));
+            }
+
+            final List<Long> chunkStarts = new ArrayList<>();
+            final List<Long> chunkLineNumbers = new ArrayList<>();
+            chunkStarts.add(0L);
+            chunkLineNumbers.add(1L);
+
+            boolean insideQuotes = false;
+            long linesBeforeBlock = 0;
+            for (int block = 0; block < blockCount; block++) {
+                final BlockScan scan = join(scanTasks.get(block));
+                final int outsideQuotesCase = insideQuotes ? 1 : 0;
+                if (block > 0 && scan.firstRecordEnd[outsideQuotesCase] >= 0) {
+                    chunkStarts.add(block * (long) chunkSize + scan.firstRecordEnd[outsideQuotesCase] + 1);
+                    chunkLineNumbers.add(linesBeforeBlock + scan.linesUpToFirstRecordEnd[outsideQuotesCase] + 1);
+                }
+                insideQuotes ^= (scan.quoteCount & 1) == 1;
+                linesBeforeBlock += scan.lineCount;
+            }
+            chunkStarts.add(size);
+
+            final List<ForkJoinTask<ChunkResult<T>>> parseTasks = new ArrayList<>(chunkStarts.size() - 1);
+            for (int chunk = 0; chunk + 1 < chunkStarts.size(); chunk++) {
+                final long chunkStart = chunkStarts.get(chunk);
+                final long chunkEnd = chunkStarts.get(chunk + 1);
+                final long firstLineNumber = chunkLineNumbers.get(chunk);
+                parseTasks.add(forkJoinPool.submit(() -> parse(channel, chunkStart, chunkEnd, firstLineNumber, parser)));
+            }
+
+            final List<T> records = new ArrayList<>();
+            final List<Rejection> rejections = new ArrayList<>();
+            long recordCount = 0;
+            for (final ForkJoinTask<ChunkResult<T>> parseTask : parseTasks) {
+                final ChunkResult<T> chunkResult = join(parseTask);
+                records.addAll(chunkResult.records);
+                rejections.addAll(chunkResult.rejections);
+                recordCount += chunkResult.recordCount;
+            }
+
+            return new Result<>(records, rejections, new ResourceLoader.LoadStatistics(path.toString(), recordCount, records.size(), System.nanoTime() - startNanos));
+        }
+    }
+
+    private static BlockScan scan(final FileChannel channel, final long blockStart, final long blockEnd) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, blockStart, blockEnd - blockStart);
+        final BlockScan scan = new BlockScan();
+
+        // quoteCount even => outside quotes when the block starts outside quotes (case 0), inside for case 1
+        for (int i = 0; i < buffer.limit(); i++) {
+            final byte b = buffer.get(i);
+            if (b == '"') {
+                scan.quoteCount++;
+            } else if (b == '\n') {
+                scan.lineCount++;
+                final int outsideQuotesCase = (int) (scan.quoteCount & 1);
+                if (scan.firstRecordEnd[outsideQuotesCase] < 0) {
+                    scan.firstRecordEnd[outsideQuotesCase] = i;
+                    scan.linesUpToFirstRecordEnd[outsideQuotesCase] = scan.lineCount;
+                }
+            }
+        }
+        return scan;
+    }
+
+    private static <T> ChunkResult<T> parse(final FileChannel channel, final long chunkStart, final long chunkEnd, final long firstLineNumber, final Function<CSVRecord, Option<T>> parser) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkEnd - chunkStart);
+        final String text = StandardCharsets.UTF_8.decode(buffer).toString();
+        final ChunkResult<T> result = new ChunkResult<>();
+
+        try (final CSVParser csvParser = CSVParser.parse(text, CSVFormat.RFC4180)) {
+            final Iterator<CSVRecord> iterator = csvParser.iterator();
+            while (true) {
+                final long lineNumber = firstLineNumber + csvParser.getCurrentLineNumber();
+                final CSVRecord record;
+                try {
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    record = iterator.next();
+                } catch (IllegalStateException e) {
+                    throw new IOException("Malformed CSV in chunk starting at line " + firstLineNumber, e);
+                }
+
+                result.recordCount++;
+                try {
+                    final Option<T> parsed = parser.apply(record);
+                    if (parsed.isDefined()) {
+                        result.records.add(parsed.get());
+                    } else {
+                        result.rejections.add(new Rejection(lineNumber, format(record), "rejected by parser"));
+                    }
+                } catch (RuntimeException e) {
+                    result.rejections.add(new Rejection(lineNumber, format(record), e.toString()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String format(final CSVRecord record) {
+        final List<String> values = new ArrayList<>(record.size());
+        record.forEach(values::add);
+        return CSVFormat.RFC4180.format(values.toArray());
+    }
+
+    private static <V> V join(final ForkJoinTask<V> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static class BlockScan {
+        private long quoteCount;
+        private long lineCount;
+        private final int[] firstRecordEnd = {-1, -1};
+        private final long[] linesUpToFirstRecordEnd = new long[2];
+    }
+
+    private static class ChunkResult<T> {
+        private final List<T> records = new ArrayList<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private long recordCount;
+    }
+
+    public static class Result<T> {
+        private final List<T> records;
+        private final List<Rejection> rejections;
+        private final ResourceLoader.LoadStatistics statistics;
+
+        private Result(final List<T> records, final List<Rejection> rejections, final ResourceLoader.LoadStatistics statistics) {
+            this.records = Collections.unmodifiableList(records);
+            this.rejections = Collections.unmodifiableList(rejections);
+            this.statistics = statistics;
+        }
+
+        /**
+         *  The parsed records, in the order of the file
+         */
+        public List<T> getRecords() {
+            return records;
+        }
+
+        public List<Rejection> getRejections() {
+            return rejections;
+        }
+
+        public ResourceLoader.LoadStatistics getStatistics() {
+            return statistics;
+        }
+    }
+
+    public static class Rejection {
+        private final long lineNumber;
+        private final String record;
+        private final String reason;
+
+        public Rejection(final long lineNumber, final String record, final String reason) {
+            this.lineNumber = lineNumber;
+            this.record = record;
+            this.reason = reason;
+        }
+
+        /**
+         *  1 based line of the file on which the record starts
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getRecord() {
+            return record;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + reason + ": " + record;
+        }
+    }
+}
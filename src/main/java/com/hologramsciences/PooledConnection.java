@@ -0,0 +1,131 @@
+package com.hologramsciences;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ *  One checkout of a physical connection from a ConnectionPool.
+ *
+ *  The proxy handed to callers delegates to the physical connection, except that close() returns the physical
+ *  connection to the pool instead of closing it.  prepareStatement(sql) is answered from the StatementCache of
+ *  the physical connection when it has one.  Statements created through the proxy and still open at that
+ *  point are closed, so they do not pile up on the long lived physical connection.  Once closed, the proxy
+ *  rejects every further call.
+ *
+ */
+class PooledConnection implements InvocationHandler {
+    private final ConnectionPool pool;
+    private final ConnectionPool.PhysicalConnection physicalConnection;
+    private final Connection proxy;
+
+    private final long acquiredNanos = System.nanoTime();
+    private final Throwable acquiredAt;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicBoolean leakReported = new AtomicBoolean(false);
+
+    private final List<Statement> openStatements = new ArrayList<>();
+
+    PooledConnection(final ConnectionPool pool, final ConnectionPool.PhysicalConnection physicalConnection, final Throwable acquiredAt) {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.acquiredAt = acquiredAt;
+        this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+    }
+
+    Connection getProxy() {
+        return proxy;
+    }
+
+    ConnectionPool.PhysicalConnection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    long getAcquiredNanos() {
+        return acquiredNanos;
+    }
+
+    Throwable getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    /**
+     *  Returns true the first time it is called
+     */
+    boolean markLeakReported() {
+        return leakReported.compareAndSet(false, true);
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final Connection connection = physicalConnection.getConnection();
+        final StatementCache statementCache = physicalConnection.getStatementCache();
+
+        if (statementCache != null && !closed.get() && method.getName().equals("prepareStatement") && args.length == 1) {
+            final PreparedStatement cached = statementCache.prepareStatement(connection, (String) args[0]);
+            if (cached != null) {
+                track(cached);
+                return cached;
+            }
+        }
+
+        switch (method.getName()) {
+            case "close":
+                if (closed.compareAndSet(false, true)) {
+                    closeOpenStatements();
+                    pool.release(this);
+                }
+                return null;
+            case "isClosed":
+                return closed.get() || connection.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "PooledConnection{" + connection + ", closed=" + closed.get() + '}';
+            default:
+                if (closed.get()) {
+                    throw new SQLException("Connection has been returned to the pool");
+                }
+                try {
+                    final Object result = method.invoke(connection, args);
+                    if (result instanceof Statement) {
+                        track((Statement) result);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+        }
+    }
+
+    private void track(final Statement statement) {
+        synchronized (openStatements) {
+            openStatements.add(statement);
+        }
+    }
+
+    private void closeOpenStatements() {
+        synchronized (openStatements) {
+            for (final Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // the connection is checked again before it goes back into the pool
+                }
+            }
+            openStatements.clear();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.hologramsciences;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ *  Runs blocking queries on a bounded pool of its own threads, so callers get a CompletableFuture instead of blocking.
+ *
+ *  At most parallelism queries run at a time and up to queueCapacity wait, beyond that submit returns a future failed
+ *  with a RejectedExecutionException.  A query running longer than the timeout completes its future with a
+ *  TimeoutException.
+ *
+ *  The ThreadMode of the config picks the threads: POOLED runs the queries on parallelism threads.  PLATFORM_PER_QUERY
+ *  and VIRTUAL_PER_QUERY give every query a thread of its own, which waits on a semaphore of parallelism permits before
+ *  it touches the database.  Virtual threads make thousands of waiting queries cheap, while the semaphore keeps them
+ *  from all entering H2, whose synchronized sections pin the carrier threads of virtual threads.
+ *
+ *  Cancelling the future, or its timing out, drops a waiting query and interrupts a running one.  An interrupted query
+ *  waiting for a pooled connection fails at once, a statement already executing in H2 runs to its end and its result
+ *  is dropped.
+ *
+ *  Platform threads are daemon threads and end after a minute without work, so an executor which is never closed does
+ *  not keep the JVM alive.
+ *
+ */
+public class QueryExecutor implements AutoCloseable {
+    private static final AtomicInteger EXECUTOR_COUNT = new AtomicInteger();
+
+    private final QueryExecutorConfig config;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+
+    // null for ThreadMode.POOLED
+    private final Semaphore permits;
+    private final AtomicInteger pendingQueries = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public QueryExecutor(final QueryExecutorConfig config) {
+        this.config = config;
+
+        final String name = "restaurant-query-" + EXECUTOR_COUNT.incrementAndGet();
+        switch (config.getThreadMode()) {
+            case POOLED:
+                final ThreadPoolExecutor pooled = new ThreadPoolExecutor(
+                        config.getParallelism(), config.getParallelism(), 1, TimeUnit.MINUTES,
+                        new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                        daemonThreads(name)
+                );
+                pooled.allowCoreThreadTimeOut(true);
+                this.executor = pooled;
+                this.permits = null;
+                break;
+            case PLATFORM_PER_QUERY:
+                this.executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 1, TimeUnit.MINUTES, new SynchronousQueue<>(), daemonThreads(name));
+                this.permits = new Semaphore(config.getParallelism(), true);
+                break;
+            case VIRTUAL_PER_QUERY:
+                this.executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+                this.permits = new Semaphore(config.getParallelism(), true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown thread mode " + config.getThreadMode());
+        }
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads(name + "-timeout"));
+    }
+
+    public <T> CompletableFuture<T> submit(final Callable<T> query) {
+        return submit(query, config.getTimeout());
+    }
+
+    /**
+     *  submit with a timeout of its own instead of the one of the config, Duration.ZERO for none
+     */
+    public <T> CompletableFuture<T> submit(final Callable<T> query, final Duration timeout) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicBoolean completedByQuery = new AtomicBoolean();
+
+        if (permits != null && pendingQueries.incrementAndGet() > config.getParallelism() + config.getQueueCapacity()) {
+            pendingQueries.decrementAndGet();
+            rejected.incrementAndGet();
+            result.completeExceptionally(new RejectedExecutionException("More than " + (config.getParallelism() + config.getQueueCapacity()) + " queries pending"));
+            return result;
+        }
+        // left before the future completes, so a caller may submit again from its callbacks
+        final AtomicBoolean pending = new AtomicBoolean(permits != null);
+
+        final FutureTask<Void> task = new FutureTask<>(() -> {
+            if (result.isDone()) {
+                return null;
+            }
+            try {
+                final T value = permits == null ? query.call() : callWithPermit(query);
+                completedByQuery.set(true);
+                leavePending(pending);
+                result.complete(value);
+            } catch (Throwable t) {
+                completedByQuery.set(true);
+                leavePending(pending);
+                result.completeExceptionally(t);
+            }
+            return null;
+        });
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            leavePending(pending);
+            rejected.incrementAndGet();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        final long timeoutNanos = timeout.toNanos();
+        final ScheduledFuture<?> scheduledTimeout = timeoutNanos == 0 ? null : timer.schedule(() -> {
+            // counted first, so callers woken by the timeout see it
+            timedOut.incrementAndGet();
+            if (!result.completeExceptionally(new TimeoutException("Query did not complete within " + timeout.toMillis() + "ms"))) {
+                timedOut.decrementAndGet();
+            }
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+
+        result.whenComplete((value, t) -> {
+            if (scheduledTimeout != null) {
+                scheduledTimeout.cancel(false);
+            }
+            leavePending(pending);
+            if (!completedByQuery.get()) {
+                if (result.isCancelled()) {
+                    cancelled.incrementAndGet();
+                }
+                task.cancel(true);
+                if (executor instanceof ThreadPoolExecutor) {
+                    ((ThreadPoolExecutor) executor).remove(task);
+                }
+            }
+        });
+        return result;
+    }
+
+    private void leavePending(final AtomicBoolean pending) {
+        if (pending.compareAndSet(true, false)) {
+            pendingQueries.decrementAndGet();
+        }
+    }
+
+    private <T> T callWithPermit(final Callable<T> query) throws Exception {
+        permits.acquire();
+        try {
+            return query.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public QueryExecutorConfig getConfig() {
+        return config;
+    }
+
+    public int getActiveQueries() {
+        return permits == null ? ((ThreadPoolExecutor) executor).getActiveCount() : config.getParallelism() - permits.availablePermits();
+    }
+
+    public int getQueuedQueries() {
+        return permits == null ? ((ThreadPoolExecutor) executor).getQueue().size() : permits.getQueueLength();
+    }
+
+    public long getRejectedQueries() {
+        return rejected.get();
+    }
+
+    public long getTimedOutQueries() {
+        return timedOut.get();
+    }
+
+    public long getCancelledQueries() {
+        return cancelled.get();
+    }
+
+    /**
+     *  Queries already submitted still run, later ones are rejected
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        timer.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryExecutor{" +
+                "threadMode=" + config.getThreadMode() +
+                ", parallelism=" + config.getParallelism() +
+                ", active=" + getActiveQueries() +
+                ", queued=" + getQueuedQueries() +
+                ", rejected=" + getRejectedQueries() +
+                ", timedOut=" + getTimedOutQueries() +
+                ", cancelled=" + getCancelledQueries() +
+                '}';
+    }
+
+    private static ThreadFactory daemonThreads(final String name) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
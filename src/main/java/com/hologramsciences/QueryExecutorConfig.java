@@ -0,0 +1,98 @@
+package com.hologramsciences;
+
+import java.time.Duration;
+
+/**
+ *
+ *  Immutable settings for a QueryExecutor, every with* method returns a modified copy:
+ *
+ *    new QueryExecutorConfig()
+ *            .withParallelism(20)
+ *            .withTimeout(Duration.ofSeconds(2))
+ *
+ *  Parallelism beyond the maximumSize of the ConnectionPool the queries run on only adds threads waiting for a
+ *  connection.  A zero timeout lets queries run as long as they take.
+ *
+ *  With ThreadMode.POOLED parallelism is the number of threads.  The other modes start a thread per query and let
+ *  parallelism of them into the database at a time, the others wait on a semaphore.  VIRTUAL_PER_QUERY needs Java 21,
+ *  see VirtualThreads.
+ *
+ */
+public class QueryExecutorConfig {
+    public enum ThreadMode {
+        POOLED,
+        PLATFORM_PER_QUERY,
+        VIRTUAL_PER_QUERY
+    }
+
+    private final int parallelism;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final ThreadMode threadMode;
+
+    public QueryExecutorConfig() {
+        this(10, 1000, Duration.ofSeconds(30), ThreadMode.POOLED);
+    }
+
+    private QueryExecutorConfig(final int parallelism, final int queueCapacity, final Duration timeout, final ThreadMode threadMode) {
+        if (parallelism < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid query executor size, parallelism: " + parallelism + ", queueCapacity: " + queueCapacity);
+        }
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Negative timeout: " + timeout);
+        }
+        this.parallelism = parallelism;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.threadMode = threadMode;
+    }
+
+    /**
+     *  Runs as many queries at a time as the pool has connections
+     */
+    public static QueryExecutorConfig forPool(final ConnectionPoolConfig connectionPoolConfig) {
+        return new QueryExecutorConfig().withParallelism(connectionPoolConfig.getMaximumSize());
+    }
+
+    public QueryExecutorConfig withParallelism(final int parallelism) {
+        return new QueryExecutorConfig(parallelism, queueCapacity, timeout, threadMode);
+    }
+
+    public QueryExecutorConfig withQueueCapacity(final int queueCapacity) {
+        return new QueryExecutorConfig(parallelism, queueCapacity, timeout, threadMode);
+    }
+
+    public QueryExecutorConfig withTimeout(final Duration timeout) {
+        return new QueryExecutorConfig(parallelism, queueCapacity, timeout, threadMode);
+    }
+
+    public QueryExecutorConfig withThreadMode(final ThreadMode threadMode) {
+        return new QueryExecutorConfig(parallelism, queueCapacity, timeout, threadMode);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryExecutorConfig{" +
+                "parallelism=" + parallelism +
+                ", queueCapacity=" + queueCapacity +
+                ", timeout=" + timeout +
+                ", threadMode=" + threadMode +
+                '}';
+    }
+}
@@ -4,10 +4,22 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -33,17 +45,165 @@ public class ResourceLoader {
     }
 
     public static final <T> List<T> parseOptionCSV(final String resourceName, final Function<CSVRecord, Option<T>> parser) throws IOException {
-        try (
-                final InputStream inputStream = ResourceLoader.class.getClassLoader().getResourceAsStream(resourceName);
-                final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-        ) {
+        try (final Stream<T> stream = streamOptionCSV(resourceName, parser)) {
+            return stream.collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     *
+     *  Like parseOptionCSV, but lazily: a record is read and parsed only when the stream asks for the next element, so
+     *  only the record being parsed is on the heap.  Records the parser maps to Option.none() are skipped.
+     *
+     *  The stream must be closed (try-with-resources) to close the underlying reader.  Read errors surface as
+     *  UncheckedIOException from the terminal operation.
+     *
+     */
+    public static final <T> Stream<T> streamOptionCSV(final String resourceName, final Function<CSVRecord, Option<T>> parser) throws IOException {
+        final InputStream inputStream = ResourceLoader.class.getClassLoader().getResourceAsStream(resourceName);
+        if (inputStream == null) {
+            throw new IOException("Resource not found: " + resourceName);
+        }
+        return streamOptionCSV(new InputStreamReader(inputStream, StandardCharsets.UTF_8), resourceName, parser, statistics -> {});
+    }
+
+    /**
+     *  streamOptionCSV for a file, e.g. a feed too large for the heap.  statisticsConsumer is called once, when the stream is closed
+     */
+    public static final <T> Stream<T> streamOptionCSV(final Path path, final Function<CSVRecord, Option<T>> parser, final Consumer<LoadStatistics> statisticsConsumer) throws IOException {
+        return streamOptionCSV(Files.newBufferedReader(path, StandardCharsets.UTF_8), path.toString(), parser, statisticsConsumer);
+    }
 
-            final List<T> result = new ArrayList<>();
-            for (final CSVRecord record: CSVParser.parse(bufferedReader, CSVFormat.RFC4180)) {
-                parser.apply(record).forEach(t -> result.add(t));
+    /**
+     *  streamOptionCSV over any reader, which is owned (and closed) by the returned stream
+     */
+    public static final <T> Stream<T> streamOptionCSV(final Reader reader, final String source, final Function<CSVRecord, Option<T>> parser, final Consumer<LoadStatistics> statisticsConsumer) throws IOException {
+        final CSVParser csvParser;
+        try {
+            csvParser = CSVParser.parse(reader instanceof BufferedReader ? reader : new BufferedReader(reader), CSVFormat.RFC4180);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+
+        final ParsingIterator<T> iterator = new ParsingIterator<>(csvParser.iterator(), parser);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        csvParser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        final LoadStatistics statistics = new LoadStatistics(source, iterator.recordCount, iterator.parsedCount, System.nanoTime() - iterator.startNanos);
+                        Metrics.CSV_PARSE.record(statistics.getElapsedNanos());
+                        Metrics.CSV_RECORDS_SCANNED.add(statistics.getRecordCount());
+                        Metrics.CSV_RECORDS_PARSED.add(statistics.getParsedCount());
+                        statisticsConsumer.accept(statistics);
+                    }
+                });
+    }
+
+    /**
+     *  Pulls CSVRecords one at a time and runs them through the parser, counting records as it goes
+     */
+    private static class ParsingIterator<T> implements Iterator<T> {
+        private final Iterator<CSVRecord> records;
+        private final Function<CSVRecord, Option<T>> parser;
+        private final long startNanos = System.nanoTime();
+
+        private T next;
+        private long recordCount;
+        private long parsedCount;
+
+        private ParsingIterator(final Iterator<CSVRecord> records, final Function<CSVRecord, Option<T>> parser) {
+            this.records = records;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && nextRecord()) {
+                final Option<T> parsed = parser.apply(records.next());
+                if (parsed.isDefined()) {
+                    next = parsed.get();
+                    parsedCount++;
+                }
+                recordCount++;
             }
+            return next != null;
+        }
 
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T result = next;
+            next = null;
             return result;
         }
+
+        /**
+         *  commons-csv reports read errors as IllegalStateException wrapping the IOException
+         */
+        private boolean nextRecord() {
+            try {
+                return records.hasNext();
+            } catch (IllegalStateException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw new UncheckedIOException((IOException) e.getCause());
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     *  How many records a streamOptionCSV stream read, how many of them parsed, and how fast
+     */
+    public static class LoadStatistics {
+        private final String source;
+        private final long recordCount;
+        private final long parsedCount;
+        private final long elapsedNanos;
+
+        public LoadStatistics(final String source, final long recordCount, final long parsedCount, final long elapsedNanos) {
+            this.source = source;
+            this.recordCount = recordCount;
+            this.parsedCount = parsedCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        public long getParsedCount() {
+            return parsedCount;
+        }
+
+        public long getRejectedCount() {
+            return recordCount - parsedCount;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : recordCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d records (%d rejected) in %dms, %.0f records/sec",
+                    source, recordCount, getRejectedCount(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getRecordsPerSecond());
+        }
     }
 }
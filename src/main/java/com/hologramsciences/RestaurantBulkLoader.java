@@ -0,0 +1,216 @@
+package com.hologramsciences;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import static java.time.temporal.ChronoField.MINUTE_OF_DAY;
+
+/**
+ *
+ *  Inserts Restaurants and their open_hours into the schema.sql tables, without the name lookup per open_hours row
+ *  that data.sql does.
+ *
+ *  load streams the restaurants through batched PreparedStatements, batchSize restaurants (and their open_hours) per
+ *  executeBatch and commit, and uses the generated restaurant ids for the open_hours rows.  A failed chunk is rolled
+ *  back, chunks committed before it stay.
+ *
+ *  loadViaCsv is the H2 fast path: the rows are written to temporary CSV files and inserted with CSVREAD, one
+ *  statement per table.
+ *
+ *  Both return the ids of the restaurants in input order, and change the data version of the SQLRestaurantService for
+ *  every committed chunk or CSV load.  The schema must exist, see SQLRestaurantService.initializeSchema.
+ *
+ */
+public class RestaurantBulkLoader {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_RESTAURANT = "insert into restaurants (name) values (?)";
+    private static final String INSERT_OPEN_HOURS = "insert into open_hours (restaurant_id, day_of_week, start_time_minute_of_day, end_time_minute_of_day) values (?, ?, ?, ?)";
+
+    private final SQLRestaurantService sqlRestaurantService;
+    private final int batchSize;
+
+    public RestaurantBulkLoader(final SQLRestaurantService sqlRestaurantService) {
+        this(sqlRestaurantService, DEFAULT_BATCH_SIZE);
+    }
+
+    public RestaurantBulkLoader(final SQLRestaurantService sqlRestaurantService, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.sqlRestaurantService = sqlRestaurantService;
+        this.batchSize = batchSize;
+    }
+
+    public List<Long> load(final Stream<Restaurant> restaurants) throws SQLException {
+        return load(restaurants::iterator);
+    }
+
+    public List<Long> load(final Iterable<Restaurant> restaurants) throws SQLException {
+        return sqlRestaurantService.runFunctionOnConnection(connection -> {
+            final List<Long> ids = new ArrayList<>();
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (
+                    final PreparedStatement insertRestaurant = connection.prepareStatement(INSERT_RESTAURANT, Statement.RETURN_GENERATED_KEYS);
+                    final PreparedStatement insertOpenHours = connection.prepareStatement(INSERT_OPEN_HOURS)
+            ) {
+                final List<Restaurant> chunk = new ArrayList<>(batchSize);
+                final Iterator<Restaurant> iterator = restaurants.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == batchSize || !iterator.hasNext()) {
+                        ids.addAll(loadChunk(connection, insertRestaurant, insertOpenHours, chunk));
+                        sqlRestaurantService.dataChanged();
+                        chunk.clear();
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return ids;
+        });
+    }
+
+    private static List<Long> loadChunk(final Connection connection, final PreparedStatement insertRestaurant, final PreparedStatement insertOpenHours, final List<Restaurant> chunk) throws SQLException {
+        try {
+            for (final Restaurant restaurant : chunk) {
+                insertRestaurant.setString(1, restaurant.getName());
+                insertRestaurant.addBatch();
+            }
+            insertRestaurant.executeBatch();
+
+            final List<Long> ids = new ArrayList<>(chunk.size());
+            try (final ResultSet generatedKeys = insertRestaurant.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    ids.add(generatedKeys.getLong(1));
+                }
+            }
+            if (ids.size() != chunk.size()) {
+                throw new SQLException("Expected " + chunk.size() + " generated keys, got " + ids.size());
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                for (final Map.Entry<DayOfWeek, Restaurant.OpenHours> entry : chunk.get(i).getOpenHoursMap().entrySet()) {
+                    insertOpenHours.setLong(1, ids.get(i));
+                    insertOpenHours.setString(2, entry.getKey().toString());
+                    insertOpenHours.setInt(3, entry.getValue().getStartTime().get(MINUTE_OF_DAY));
+                    insertOpenHours.setInt(4, entry.getValue().getEndTime().get(MINUTE_OF_DAY));
+                    insertOpenHours.addBatch();
+                }
+            }
+            insertOpenHours.executeBatch();
+
+            connection.commit();
+            return ids;
+        } catch (SQLException | RuntimeException e) {
+            insertRestaurant.clearBatch();
+            insertOpenHours.clearBatch();
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     *  H2 only.  Ids are assigned after the largest id in restaurants.  Before any row is written the identity of
+     *  restaurants.id is restarted after the last of them, which reserves the range against inserts through the
+     *  identity.  The inserts then run in a single transaction, and a row that still took one of the ids in between
+     *  makes the load fail with a primary key violation instead of being overwritten.
+     *
+     *  The restart is DDL, which H2 commits at once, so a failed load is rolled back but leaves its range of ids unused.
+     *
+     */
+    public List<Long> loadViaCsv(final Iterable<Restaurant> restaurants) throws SQLException, IOException {
+        final Path restaurantsCsv = Files.createTempFile("restaurants", ".csv");
+        final Path openHoursCsv = Files.createTempFile("open_hours", ".csv");
+        try {
+            // ids in the files count from 0, the insert adds the first free id
+            long count = 0;
+            try (
+                    final BufferedWriter restaurantsWriter = Files.newBufferedWriter(restaurantsCsv, StandardCharsets.UTF_8);
+                    final CSVPrinter restaurantsPrinter = new CSVPrinter(restaurantsWriter, CSVFormat.RFC4180.withHeader("ID", "NAME"));
+                    final BufferedWriter openHoursWriter = Files.newBufferedWriter(openHoursCsv, StandardCharsets.UTF_8);
+                    final CSVPrinter openHoursPrinter = new CSVPrinter(openHoursWriter, CSVFormat.RFC4180.withHeader("RESTAURANT_ID", "DAY_OF_WEEK", "START_TIME_MINUTE_OF_DAY", "END_TIME_MINUTE_OF_DAY"))
+            ) {
+                for (final Restaurant restaurant : restaurants) {
+                    final long id = count++;
+                    restaurantsPrinter.printRecord(id, restaurant.getName());
+                    for (final Map.Entry<DayOfWeek, Restaurant.OpenHours> entry : restaurant.getOpenHoursMap().entrySet()) {
+                        openHoursPrinter.printRecord(id, entry.getKey(), entry.getValue().getStartTime().get(MINUTE_OF_DAY), entry.getValue().getEndTime().get(MINUTE_OF_DAY));
+                    }
+                }
+            }
+
+            final long restaurantCount = count;
+            final List<Long> ids = sqlRestaurantService.runFunctionOnConnection(connection -> insertCsv(connection, restaurantsCsv, openHoursCsv, restaurantCount));
+            sqlRestaurantService.dataChanged();
+            return ids;
+        } finally {
+            Files.deleteIfExists(restaurantsCsv);
+            Files.deleteIfExists(openHoursCsv);
+        }
+    }
+
+    /**
+     *  CSVREAD needs the file name when the statement is prepared, so it is inlined as a literal
+     */
+    private static List<Long> insertCsv(final Connection connection, final Path restaurantsCsv, final Path openHoursCsv, final long restaurantCount) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (final Statement statement = connection.createStatement()) {
+            final long firstId;
+            try (final ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) + 1 from restaurants")) {
+                rs.next();
+                firstId = rs.getLong(1);
+            }
+
+            // DDL commits implicitly in H2, so before the inserts of this transaction
+            statement.execute("alter table restaurants alter column id restart with " + (firstId + restaurantCount));
+
+            statement.executeUpdate(
+                    "insert into restaurants (id, name)"
+                            + " select cast(id as bigint) + " + firstId + ", name"
+                            + " from csvread(" + sqlLiteral(restaurantsCsv) + ", null, 'charset=UTF-8')"
+            );
+            statement.executeUpdate(
+                    "insert into open_hours (restaurant_id, day_of_week, start_time_minute_of_day, end_time_minute_of_day)"
+                            + " select cast(restaurant_id as bigint) + " + firstId + ", day_of_week, cast(start_time_minute_of_day as int), cast(end_time_minute_of_day as int)"
+                            + " from csvread(" + sqlLiteral(openHoursCsv) + ", null, 'charset=UTF-8')"
+            );
+            connection.commit();
+
+            final List<Long> ids = new ArrayList<>();
+            for (long i = 0; i < restaurantCount; i++) {
+                ids.add(firstId + i);
+            }
+            return ids;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String sqlLiteral(final Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+}
@@ -9,12 +9,14 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import org.apache.commons.lang3.StringUtils;
-import org.h2.jdbcx.JdbcDataSource;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.hologramsciences.sql.RestaurantRecord;
 
@@ -22,7 +24,56 @@ import static java.time.temporal.ChronoField.MINUTE_OF_DAY;
 
 
 public class SQLRestaurantService {
+    public static final String DEFAULT_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    // Created on first use, shared by every service built with the default constructor
+    private static class DefaultConnectionPool {
+        private static final ConnectionPool INSTANCE = new ConnectionPool(new ConnectionPoolConfig(DEFAULT_URL, "sa", "sa"));
+    }
+
+    private final ConnectionPool connectionPool;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private QueryExecutor queryExecutor;
+
+    public SQLRestaurantService() {
+        this(DefaultConnectionPool.INSTANCE);
+    }
+
+    /**
+     *  The *Async methods run on a QueryExecutor with one thread per connection of the pool, created on first use
+     */
+    public SQLRestaurantService(final ConnectionPool connectionPool) {
+        this(connectionPool, null);
+    }
+
+    public SQLRestaurantService(final ConnectionPool connectionPool, final QueryExecutor queryExecutor) {
+        this.connectionPool = connectionPool;
+        this.queryExecutor = queryExecutor;
+    }
 
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public synchronized QueryExecutor getQueryExecutor() {
+        if (queryExecutor == null) {
+            queryExecutor = new QueryExecutor(QueryExecutorConfig.forPool(connectionPool.getConfig()));
+        }
+        return queryExecutor;
+    }
+
+    /**
+     *  Changes whenever data is written through this service or a RestaurantBulkLoader on it, see OpenRestaurantsCache.
+     *  Code writing to the tables by other means should call dataChanged afterwards.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    public void dataChanged() {
+        dataVersion.incrementAndGet();
+    }
 
     /**
      *
@@ -32,28 +83,30 @@ public class SQLRestaurantService {
      *
      *  Using the same open logic from CSVRestaurantService.getOpenRestaurants
      *
+     *  Answered from open_hours_spans (see OpenHoursSpansTrigger): a range scan of open_hours_spans_start_end over the
+     *  spans starting between the first minute of dayOfWeek and localTime.
+     *
      */
     public List<RestaurantRecord> getOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) throws SQLException {
-        final String dayOfWeekString = dayOfWeek.toString();
-
-        final DayOfWeek previousDayOfWeek = dayOfWeek.minus(1);
-        final String previousDayOfWeekString = previousDayOfWeek.toString();
-
-
-        final Integer minuteOfDay    = localTime.get(MINUTE_OF_DAY);
+        final long startNanos = Metrics.SQL_OPEN_RESTAURANTS.start();
+        try {
+            final List<RestaurantRecord> restaurantRecords = runQueryAndParseRestaurants(OPEN_RESTAURANTS_QUERY, openRestaurantsParameters(dayOfWeek, localTime));
+            Metrics.SQL_OPEN_RESTAURANTS_RETURNED.add(restaurantRecords.size());
+            return restaurantRecords;
+        } finally {
+            Metrics.SQL_OPEN_RESTAURANTS.stop(startNanos);
+        }
+    }
 
-        final String query = String.join("\n"
-                ,
-                 "select distinct r.id, r.name from restaurants r"
-                , " inner join open_hours oh on oh.restaurant_id = r.id"
-                , " where (start_time_minute_of_day <= ? and end_time_minute_of_day >= ? and day_of_week = ?)"
-                , " or ((start_time_minute_of_day != 0 and end_time_minute_of_day != 0)"
-                , " and start_time_minute_of_day - end_time_minute_of_day > 0 and day_of_week = ? "
-                , " and ((start_time_minute_of_day <= ? and end_time_minute_of_day < ?)"
-                , " or (start_time_minute_of_day > ? and end_time_minute_of_day > ?)))"
-        );
+    static final String OPEN_RESTAURANTS_QUERY = String.join("\n"
+            , "select distinct r.id, r.name from open_hours_spans s"
+            , " inner join restaurants r on r.id = s.restaurant_id"
+            , " where s.start_minute_of_week between ? and ? and s.end_minute_of_week >= ?"
+    );
 
-        return runQueryAndParseRestaurants(query, minuteOfDay, minuteOfDay, dayOfWeekString, previousDayOfWeekString, minuteOfDay, minuteOfDay, minuteOfDay, minuteOfDay);
+    static Object[] openRestaurantsParameters(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        final Integer minuteOfWeek = OpenHoursSpansTrigger.minuteOfWeek(dayOfWeek, localTime.get(MINUTE_OF_DAY));
+        return new Object[] { OpenHoursSpansTrigger.firstMinuteOfWeek(dayOfWeek), minuteOfWeek, minuteOfWeek };
     }
 
     /**
@@ -62,36 +115,113 @@ public class SQLRestaurantService {
      *
      *  Write a prepared SQL statement (with safe variable replacement)  which returns all the restaurants which have at least menuSize number of menu_items
      *
+     *  Answered from menu_item_counts (see MenuItemCountTrigger): a range scan of menu_item_counts_count.
+     *
      */
     public List<RestaurantRecord> getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(final Integer menuSize) throws SQLException {
+        return runQueryAndParseRestaurants(MENU_SIZE_QUERY, menuSize);
+    }
 
+    static final String MENU_SIZE_QUERY = String.join("\n"
+            , "select r.id, r.name from menu_item_counts c"
+            , " inner join restaurants r on r.id = c.restaurant_id"
+            , " where c.menu_item_count >= ?"
+    );
 
-        final String query = String.join("\n"
-                , " select count(1), r.id, r.name "
-                , " from restaurants r "
-                , " inner join menu_items mi on mi.restaurant_id = r.id "
-                , " group by r.id, r.name having count(1) >= ?"
-        );
 
-        return runQueryAndParseRestaurants(query, menuSize);
+    /**
+     *
+     *  getOpenRestaurants without collecting the restaurants into a list: a row is read and turned into a
+     *  RestaurantRecord only when the stream asks for the next element, so a consumer writing each record out (e.g. to a
+     *  serializer) runs in constant memory.
+     *
+     *  The stream holds a pooled connection until it is closed (try-with-resources).  fetchSize is the number of rows a
+     *  server connection (jdbc:h2:tcp:) transfers per round trip, an embedded database keeps results of more than its
+     *  MAX_MEMORY_ROWS setting on disk.  Errors reading the rows surface as UncheckedSQLException from the terminal
+     *  operation.
+     *
+     */
+    public Stream<RestaurantRecord> streamOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime, final int fetchSize) throws SQLException {
+        return streamQueryAndParseRestaurants(OPEN_RESTAURANTS_QUERY, fetchSize, openRestaurantsParameters(dayOfWeek, localTime));
     }
 
+    public Stream<RestaurantRecord> streamOpenRestaurants(final DayOfWeek dayOfWeek, final LocalTime localTime) throws SQLException {
+        return streamOpenRestaurants(dayOfWeek, localTime, DEFAULT_FETCH_SIZE);
+    }
 
+    /**
+     *  Every restaurant ordered by id, streamed like streamOpenRestaurants
+     */
+    public Stream<RestaurantRecord> streamAllRestaurants(final int fetchSize) throws SQLException {
+        return streamQueryAndParseRestaurants(ALL_RESTAURANTS_QUERY, fetchSize);
+    }
+
+    public Stream<RestaurantRecord> streamAllRestaurants() throws SQLException {
+        return streamAllRestaurants(DEFAULT_FETCH_SIZE);
+    }
+
+    static final String ALL_RESTAURANTS_QUERY = "select id, name from restaurants order by id";
+
+    /**
+     *  Runs RESTAURANTS_WITH_IDS_QUERY for chunks of the ids in parallel, see ChunkedIdLookup.  The records are in the
+     *  order of the ids.
+     */
     public List<RestaurantRecord> getAllRestaurantRecordsWithIds(final Collection<Long> ids) throws SQLException {
-        if (ids.isEmpty()) {
-            return Collections.emptyList();
-        }
+        return ChunkedIdLookup.lookup(getQueryExecutor(), ids, ChunkedIdLookup.DEFAULT_CHUNK_SIZE, this::getRestaurantRecordsWithIds, RestaurantRecord::getId);
+    }
 
-        final String inList = StringUtils.join(ids.stream().map(Object::toString).collect(Collectors.toList()), ",");
-        return runQueryAndParseRestaurants("select * from restaurants where id in (" + inList + ")");
+    static final String RESTAURANTS_WITH_IDS_QUERY = "select id, name from restaurants where id = any(?)";
+
+    private List<RestaurantRecord> getRestaurantRecordsWithIds(final Long[] ids) throws SQLException {
+        return runQueryAndParseRestaurants(RESTAURANTS_WITH_IDS_QUERY, (Object) ids);
+    }
+
+    /**
+     *  getOpenRestaurants on the QueryExecutor, see there for timeouts and cancellation
+     */
+    public CompletableFuture<List<RestaurantRecord>> getOpenRestaurantsAsync(final DayOfWeek dayOfWeek, final LocalTime localTime) {
+        return getQueryExecutor().submit(() -> getOpenRestaurants(dayOfWeek, localTime));
+    }
+
+    public CompletableFuture<List<RestaurantRecord>> getRestaurantsWithMenuOfSizeGreaterThanOrEqualToAsync(final Integer menuSize) {
+        return getQueryExecutor().submit(() -> getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(menuSize));
+    }
+
+    /**
+     *  Completes once all chunks did, without holding a thread of the QueryExecutor in the meantime
+     */
+    public CompletableFuture<List<RestaurantRecord>> getAllRestaurantRecordsWithIdsAsync(final Collection<Long> ids) {
+        return ChunkedIdLookup.lookupAsync(getQueryExecutor(), ids, ChunkedIdLookup.DEFAULT_CHUNK_SIZE, this::getRestaurantRecordsWithIds, RestaurantRecord::getId);
+    }
+
+    /**
+     *  Creates the tables of schema.sql if they do not exist yet, e.g. before a RestaurantBulkLoader run
+     *
+     *  open_hours rows written before open_hours_spans existed get their spans here, later ones from OpenHoursSpansTrigger
+     */
+    public void initializeSchema() throws Exception {
+        runOnConnection(connection -> {
+            try (final Statement statement = connection.createStatement()) {
+                statement.execute(ResourceLoader.readResourceAsString("schema.sql"));
+            }
+            OpenHoursSpansTrigger.insertMissingSpans(connection);
+        });
     }
 
     public void initializeDatabase() throws Exception {
-        runOnStatement(statement-> {
-            final String schemaSql = ResourceLoader.readResourceAsString("schema.sql");
-            statement.execute(schemaSql);
-            System.out.println("Done creating schema");
+        final long startNanos = Metrics.SQL_INITIALIZE_DATABASE.start();
+        try {
+            createSchemaAndData();
+        } finally {
+            Metrics.SQL_INITIALIZE_DATABASE.stop(startNanos);
+        }
+    }
 
+    private void createSchemaAndData() throws Exception {
+        initializeSchema();
+        System.out.println("Done creating schema");
+
+        runOnStatement(statement-> {
             boolean hasData = false;
             final ResultSet countRS = statement.executeQuery("select count(*) as count from restaurants");
             while(countRS.next()) {
@@ -103,6 +233,7 @@ public class SQLRestaurantService {
             } else {
                 final String dataSql = ResourceLoader.readResourceAsString("data.sql");
                 statement.execute(dataSql);
+                dataChanged();
                 System.out.println("Done inserting data");
             }
         });
@@ -121,7 +252,7 @@ public class SQLRestaurantService {
 
     public <E extends Exception> void runOnStatement(final ExceptionThrowingConsumer<Statement, E> consumer) throws E, SQLException {
         try (
-                final Connection connection = createConnection();
+                final Connection connection = acquireConnection();
                 final Statement statement = connection.createStatement();
         ) {
             consumer.accept(statement);
@@ -130,7 +261,7 @@ public class SQLRestaurantService {
 
     public <E extends Exception> void runOnConnection(final ExceptionThrowingConsumer<Connection, E> consumer) throws E, SQLException {
         try (
-                final Connection connection = createConnection();
+                final Connection connection = acquireConnection();
         ) {
             consumer.accept(connection);
         }
@@ -138,48 +269,123 @@ public class SQLRestaurantService {
 
     public <T, E extends Exception> T runFunctionOnConnection(final ExceptionThrowingFunction<Connection, T, E> function) throws E, SQLException {
         try (
-                final Connection connection = createConnection();
+                final Connection connection = acquireConnection();
         ) {
             return function.apply(connection);
         }
     }
 
-    private List<RestaurantRecord> runQueryAndParseRestaurants(final String query, final Object... parameters) throws SQLException {
-        final List<RestaurantRecord> results = new ArrayList<>();
-         runOnConnection(statement-> {
+    /**
+     *  The stream of function, which closes the connection after the stream's own close handlers have run.  The
+     *  connection is closed right away when function fails.
+     */
+    public <T> Stream<T> streamOnConnection(final ExceptionThrowingFunction<Connection, Stream<T>, SQLException> function) throws SQLException {
+        final Connection connection = acquireConnection();
+        try {
+            return function.apply(connection).onClose(() -> close(connection));
+        } catch (SQLException | RuntimeException | Error e) {
+            closeAfterFailure(connection, e);
+            throw e;
+        }
+    }
 
-             final PreparedStatement preparedStatement = statement.prepareStatement(query);
-             for (int i = 1; i <= parameters.length; i++) {
-                 preparedStatement.setObject(i, parameters[i-1]);
-             }
+    /**
+     *  The PreparedStatement comes from the StatementCache of the pooled connection, closing it hands it back
+     */
+    private List<RestaurantRecord> runQueryAndParseRestaurants(final String query, final Object... parameters) throws SQLException {
+        return runFunctionOnConnection(connection -> {
+            try (final PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                for (int i = 1; i <= parameters.length; i++) {
+                    preparedStatement.setObject(i, parameters[i-1]);
+                }
+
+                try (final ResultSet rs = preparedStatement.executeQuery()) {
+                    final List<RestaurantRecord> restaurantRecords = parseRestaurants(rs);
+                    Metrics.SQL_ROWS_FETCHED.add(restaurantRecords.size());
+                    return restaurantRecords;
+                }
+            }
+        });
+    }
 
-             final ResultSet rs = preparedStatement.executeQuery();
-             while (rs.next()) {
-                 results.add(new RestaurantRecord(rs.getLong("id"), rs.getString("name")));
-             }
-         });
+    private Stream<RestaurantRecord> streamQueryAndParseRestaurants(final String query, final int fetchSize, final Object... parameters) throws SQLException {
+        return streamOnConnection(connection -> {
+            final PreparedStatement preparedStatement = connection.prepareStatement(query);
+            final int previousFetchSize;
+            final ResultSet rs;
+            try {
+                previousFetchSize = preparedStatement.getFetchSize();
+                preparedStatement.setFetchSize(fetchSize);
+                for (int i = 1; i <= parameters.length; i++) {
+                    preparedStatement.setObject(i, parameters[i-1]);
+                }
+                rs = preparedStatement.executeQuery();
+            } catch (SQLException | RuntimeException e) {
+                closeAfterFailure(preparedStatement, e);
+                throw e;
+            }
 
-         return results;
+            final Spliterator<RestaurantRecord> restaurants = new Spliterators.AbstractSpliterator<RestaurantRecord>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(final Consumer<? super RestaurantRecord> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        Metrics.SQL_ROWS_FETCHED.increment();
+                        action.accept(parseRestaurant(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new UncheckedSQLException(e);
+                    }
+                }
+            };
+            return StreamSupport.stream(restaurants, false)
+                    .onClose(() -> close(rs))
+                    .onClose(() -> {
+                        // the statement is shared with getOpenRestaurants through the StatementCache
+                        try {
+                            preparedStatement.setFetchSize(previousFetchSize);
+                        } catch (SQLException e) {
+                            closeAfterFailure(preparedStatement, e);
+                            throw new UncheckedSQLException(e);
+                        }
+                        close(preparedStatement);
+                    });
+        });
     }
 
-    private List<RestaurantRecord> runQueryAndParseRestaurants(final String query) throws SQLException {
+    private static List<RestaurantRecord> parseRestaurants(final ResultSet rs) throws SQLException {
         final List<RestaurantRecord> results = new ArrayList<>();
-         runOnStatement(statement-> {
-            final ResultSet rs = statement.executeQuery(query);
-            while (rs.next()) {
-                results.add(new RestaurantRecord(rs.getLong("id"), rs.getString("name")));
-            }
-        });
+        while (rs.next()) {
+            results.add(parseRestaurant(rs));
+        }
+        return results;
+    }
 
-         return results;
+    private static RestaurantRecord parseRestaurant(final ResultSet rs) throws SQLException {
+        return new RestaurantRecord(rs.getLong("id"), rs.getString("name"));
     }
 
+    private static void close(final AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void closeAfterFailure(final AutoCloseable closeable, final Throwable failure) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            failure.addSuppressed(e);
+        }
+    }
 
-   private Connection createConnection() throws SQLException {
-        JdbcDataSource ds = new JdbcDataSource();
-        ds.setURL("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1");
-        ds.setUser("sa");
-        ds.setPassword("sa");
-        return ds.getConnection();
+    private Connection acquireConnection() throws SQLException {
+        return connectionPool.getConnection();
     }
 }
@@ -0,0 +1,195 @@
+package com.hologramsciences;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ *  The PreparedStatements of one physical connection, keyed by SQL text and evicted least recently used first.
+ *
+ *  prepareStatement hands out a proxy of the cached statement.  Closing the proxy closes the ResultSet it produced
+ *  last, clears the parameters, puts the fetch size, fetch direction, max rows, max field size and query timeout
+ *  back to the values the statement was prepared with, and gives the statement back to the cache, so H2 parses and
+ *  plans the SQL text only once per connection and no caller inherits the settings of the one before (jOOQ, for
+ *  one, sets them per query).  A statement evicted while in use is closed when its user closes it.
+ *
+ */
+class StatementCache {
+    private final int maximumSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(final int maximumSize, final AtomicLong hits, final AtomicLong misses) {
+        this.maximumSize = maximumSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maximumSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     *  Returns null when the statement for sql is already in use, the caller should prepare an uncached one then
+     */
+    synchronized PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException {
+        final CachedStatement cached = statements.get(sql);
+        if (cached != null) {
+            if (cached.inUse) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        misses.incrementAndGet();
+        final CachedStatement prepared = new CachedStatement(connection.prepareStatement(sql));
+        prepared.inUse = true;
+        statements.put(sql, prepared);
+        return prepared.proxy;
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    synchronized void closeAll() {
+        final List<CachedStatement> cached = new ArrayList<>(statements.values());
+        statements.clear();
+        for (final CachedStatement statement : cached) {
+            statement.evict();
+        }
+    }
+
+    private class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+
+        // as prepared, restored by giveBack
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int queryTimeout;
+
+        private boolean inUse = false;
+        private boolean evicted = false;
+        private ResultSet lastResultSet;
+
+        private CachedStatement(final PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    synchronized (StatementCache.this) {
+                        return !inUse || statement.isClosed();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement{" + statement + '}';
+                default:
+                    synchronized (StatementCache.this) {
+                        if (!inUse) {
+                            throw new SQLException("Statement has been closed");
+                        }
+                    }
+                    try {
+                        final Object result = method.invoke(statement, args);
+                        if (result instanceof ResultSet) {
+                            lastResultSet = (ResultSet) result;
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        private void giveBack() throws SQLException {
+            synchronized (StatementCache.this) {
+                if (!inUse) {
+                    return;
+                }
+                inUse = false;
+                try {
+                    if (lastResultSet != null) {
+                        lastResultSet.close();
+                        lastResultSet = null;
+                    }
+                    statement.clearParameters();
+                    resetSettings();
+                } finally {
+                    if (evicted) {
+                        statement.close();
+                    }
+                }
+            }
+        }
+
+        private void resetSettings() throws SQLException {
+            // H2 rejects a fetch size above the max rows, so max rows first
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getFetchDirection() != fetchDirection) {
+                statement.setFetchDirection(fetchDirection);
+            }
+            if (statement.getMaxFieldSize() != maxFieldSize) {
+                statement.setMaxFieldSize(maxFieldSize);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // closing the connection closes the statement as well
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hologramsciences;
+
+import java.sql.SQLException;
+
+/**
+ *
+ *  The SQLException counterpart of java.io.UncheckedIOException, thrown where a Stream or other functional interface
+ *  cannot throw the checked exception, e.g. by the streams of SQLRestaurantService.
+ *
+ */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(final SQLException cause) {
+        super(cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
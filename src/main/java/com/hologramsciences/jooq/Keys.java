@@ -4,11 +4,15 @@
 package com.hologramsciences.jooq;
 
 
+import com.hologramsciences.jooq.tables.MenuItemCounts;
 import com.hologramsciences.jooq.tables.MenuItems;
 import com.hologramsciences.jooq.tables.OpenHours;
+import com.hologramsciences.jooq.tables.OpenHoursSpans;
 import com.hologramsciences.jooq.tables.Restaurants;
+import com.hologramsciences.jooq.tables.records.MenuItemCountsRecord;
 import com.hologramsciences.jooq.tables.records.MenuItemsRecord;
 import com.hologramsciences.jooq.tables.records.OpenHoursRecord;
+import com.hologramsciences.jooq.tables.records.OpenHoursSpansRecord;
 import com.hologramsciences.jooq.tables.records.RestaurantsRecord;
 
 import org.jooq.ForeignKey;
@@ -31,22 +35,28 @@ public class Keys {
 
     public static final Identity<MenuItemsRecord, Long> IDENTITY_MENU_ITEMS = Identities0.IDENTITY_MENU_ITEMS;
     public static final Identity<OpenHoursRecord, Long> IDENTITY_OPEN_HOURS = Identities0.IDENTITY_OPEN_HOURS;
+    public static final Identity<OpenHoursSpansRecord, Long> IDENTITY_OPEN_HOURS_SPANS = Identities0.IDENTITY_OPEN_HOURS_SPANS;
     public static final Identity<RestaurantsRecord, Long> IDENTITY_RESTAURANTS = Identities0.IDENTITY_RESTAURANTS;
 
     // -------------------------------------------------------------------------
     // UNIQUE and PRIMARY KEY definitions
     // -------------------------------------------------------------------------
 
+    public static final UniqueKey<MenuItemCountsRecord> CONSTRAINT_D = UniqueKeys0.CONSTRAINT_D;
     public static final UniqueKey<MenuItemsRecord> CONSTRAINT_4 = UniqueKeys0.CONSTRAINT_4;
     public static final UniqueKey<OpenHoursRecord> CONSTRAINT_7 = UniqueKeys0.CONSTRAINT_7;
+    public static final UniqueKey<OpenHoursSpansRecord> CONSTRAINT_A = UniqueKeys0.CONSTRAINT_A;
     public static final UniqueKey<RestaurantsRecord> CONSTRAINT_B = UniqueKeys0.CONSTRAINT_B;
 
     // -------------------------------------------------------------------------
     // FOREIGN KEY definitions
     // -------------------------------------------------------------------------
 
+    public static final ForeignKey<MenuItemCountsRecord, RestaurantsRecord> CONSTRAINT_D9 = ForeignKeys0.CONSTRAINT_D9;
     public static final ForeignKey<MenuItemsRecord, RestaurantsRecord> CONSTRAINT_4D = ForeignKeys0.CONSTRAINT_4D;
     public static final ForeignKey<OpenHoursRecord, RestaurantsRecord> CONSTRAINT_7C = ForeignKeys0.CONSTRAINT_7C;
+    public static final ForeignKey<OpenHoursSpansRecord, OpenHoursRecord> CONSTRAINT_A9 = ForeignKeys0.CONSTRAINT_A9;
+    public static final ForeignKey<OpenHoursSpansRecord, RestaurantsRecord> CONSTRAINT_A98 = ForeignKeys0.CONSTRAINT_A98;
 
     // -------------------------------------------------------------------------
     // [#1459] distribute members to avoid static initialisers > 64kb
@@ -55,17 +65,23 @@ public class Keys {
     private static class Identities0 {
         public static Identity<MenuItemsRecord, Long> IDENTITY_MENU_ITEMS = Internal.createIdentity(MenuItems.MENU_ITEMS, MenuItems.MENU_ITEMS.ID);
         public static Identity<OpenHoursRecord, Long> IDENTITY_OPEN_HOURS = Internal.createIdentity(OpenHours.OPEN_HOURS, OpenHours.OPEN_HOURS.ID);
+        public static Identity<OpenHoursSpansRecord, Long> IDENTITY_OPEN_HOURS_SPANS = Internal.createIdentity(OpenHoursSpans.OPEN_HOURS_SPANS, OpenHoursSpans.OPEN_HOURS_SPANS.ID);
         public static Identity<RestaurantsRecord, Long> IDENTITY_RESTAURANTS = Internal.createIdentity(Restaurants.RESTAURANTS, Restaurants.RESTAURANTS.ID);
     }
 
     private static class UniqueKeys0 {
+        public static final UniqueKey<MenuItemCountsRecord> CONSTRAINT_D = Internal.createUniqueKey(MenuItemCounts.MENU_ITEM_COUNTS, "CONSTRAINT_D", new TableField[] { MenuItemCounts.MENU_ITEM_COUNTS.RESTAURANT_ID }, true);
         public static final UniqueKey<MenuItemsRecord> CONSTRAINT_4 = Internal.createUniqueKey(MenuItems.MENU_ITEMS, "CONSTRAINT_4", new TableField[] { MenuItems.MENU_ITEMS.ID }, true);
         public static final UniqueKey<OpenHoursRecord> CONSTRAINT_7 = Internal.createUniqueKey(OpenHours.OPEN_HOURS, "CONSTRAINT_7", new TableField[] { OpenHours.OPEN_HOURS.ID }, true);
+        public static final UniqueKey<OpenHoursSpansRecord> CONSTRAINT_A = Internal.createUniqueKey(OpenHoursSpans.OPEN_HOURS_SPANS, "CONSTRAINT_A", new TableField[] { OpenHoursSpans.OPEN_HOURS_SPANS.ID }, true);
         public static final UniqueKey<RestaurantsRecord> CONSTRAINT_B = Internal.createUniqueKey(Restaurants.RESTAURANTS, "CONSTRAINT_B", new TableField[] { Restaurants.RESTAURANTS.ID }, true);
     }
 
     private static class ForeignKeys0 {
+        public static final ForeignKey<MenuItemCountsRecord, RestaurantsRecord> CONSTRAINT_D9 = Internal.createForeignKey(Keys.CONSTRAINT_B, MenuItemCounts.MENU_ITEM_COUNTS, "CONSTRAINT_D9", new TableField[] { MenuItemCounts.MENU_ITEM_COUNTS.RESTAURANT_ID }, true);
         public static final ForeignKey<MenuItemsRecord, RestaurantsRecord> CONSTRAINT_4D = Internal.createForeignKey(Keys.CONSTRAINT_B, MenuItems.MENU_ITEMS, "CONSTRAINT_4D", new TableField[] { MenuItems.MENU_ITEMS.RESTAURANT_ID }, true);
         public static final ForeignKey<OpenHoursRecord, RestaurantsRecord> CONSTRAINT_7C = Internal.createForeignKey(Keys.CONSTRAINT_B, OpenHours.OPEN_HOURS, "CONSTRAINT_7C", new TableField[] { OpenHours.OPEN_HOURS.RESTAURANT_ID }, true);
+        public static final ForeignKey<OpenHoursSpansRecord, OpenHoursRecord> CONSTRAINT_A9 = Internal.createForeignKey(Keys.CONSTRAINT_7, OpenHoursSpans.OPEN_HOURS_SPANS, "CONSTRAINT_A9", new TableField[] { OpenHoursSpans.OPEN_HOURS_SPANS.OPEN_HOURS_ID }, true);
+        public static final ForeignKey<OpenHoursSpansRecord, RestaurantsRecord> CONSTRAINT_A98 = Internal.createForeignKey(Keys.CONSTRAINT_B, OpenHoursSpans.OPEN_HOURS_SPANS, "CONSTRAINT_A98", new TableField[] { OpenHoursSpans.OPEN_HOURS_SPANS.RESTAURANT_ID }, true);
     }
 }
@@ -4,8 +4,10 @@
 package com.hologramsciences.jooq;
 
 
+import com.hologramsciences.jooq.tables.MenuItemCounts;
 import com.hologramsciences.jooq.tables.MenuItems;
 import com.hologramsciences.jooq.tables.OpenHours;
+import com.hologramsciences.jooq.tables.OpenHoursSpans;
 import com.hologramsciences.jooq.tables.Restaurants;
 
 import java.util.Arrays;
@@ -29,6 +31,11 @@ public class Public extends SchemaImpl {
      */
     public static final Public PUBLIC = new Public();
 
+    /**
+     * The table <code>PUBLIC.MENU_ITEM_COUNTS</code>.
+     */
+    public final MenuItemCounts MENU_ITEM_COUNTS = MenuItemCounts.MENU_ITEM_COUNTS;
+
     /**
      * The table <code>PUBLIC.MENU_ITEMS</code>.
      */
@@ -39,6 +46,11 @@ public class Public extends SchemaImpl {
      */
     public final OpenHours OPEN_HOURS = OpenHours.OPEN_HOURS;
 
+    /**
+     * The table <code>PUBLIC.OPEN_HOURS_SPANS</code>.
+     */
+    public final OpenHoursSpans OPEN_HOURS_SPANS = OpenHoursSpans.OPEN_HOURS_SPANS;
+
     /**
      * The table <code>PUBLIC.RESTAURANTS</code>.
      */
@@ -60,8 +72,10 @@ public class Public extends SchemaImpl {
     @Override
     public final List<Table<?>> getTables() {
         return Arrays.<Table<?>>asList(
+            MenuItemCounts.MENU_ITEM_COUNTS,
             MenuItems.MENU_ITEMS,
             OpenHours.OPEN_HOURS,
+            OpenHoursSpans.OPEN_HOURS_SPANS,
             Restaurants.RESTAURANTS);
     }
 }
@@ -4,8 +4,10 @@
 package com.hologramsciences.jooq;
 
 
+import com.hologramsciences.jooq.tables.MenuItemCounts;
 import com.hologramsciences.jooq.tables.MenuItems;
 import com.hologramsciences.jooq.tables.OpenHours;
+import com.hologramsciences.jooq.tables.OpenHoursSpans;
 import com.hologramsciences.jooq.tables.Restaurants;
 
 
@@ -15,6 +17,11 @@ import com.hologramsciences.jooq.tables.Restaurants;
 @SuppressWarnings({ "all", "unchecked", "rawtypes" })
 public class Tables {
 
+    /**
+     * The table <code>PUBLIC.MENU_ITEM_COUNTS</code>.
+     */
+    public static final MenuItemCounts MENU_ITEM_COUNTS = MenuItemCounts.MENU_ITEM_COUNTS;
+
     /**
      * The table <code>PUBLIC.MENU_ITEMS</code>.
      */
@@ -25,6 +32,11 @@ public class Tables {
      */
     public static final OpenHours OPEN_HOURS = OpenHours.OPEN_HOURS;
 
+    /**
+     * The table <code>PUBLIC.OPEN_HOURS_SPANS</code>.
+     */
+    public static final OpenHoursSpans OPEN_HOURS_SPANS = OpenHoursSpans.OPEN_HOURS_SPANS;
+
     /**
      * The table <code>PUBLIC.RESTAURANTS</code>.
      */
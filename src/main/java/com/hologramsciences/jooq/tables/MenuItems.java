@@ -60,7 +60,7 @@ public class MenuItems extends TableImpl<MenuItemsRecord> {
     /**
      * The column <code>PUBLIC.MENU_ITEMS.NAME</code>.
      */
-    public final TableField<MenuItemsRecord, String> NAME = createField(DSL.name("NAME"), org.jooq.impl.SQLDataType.CLOB.nullable(false), this, "");
+    public final TableField<MenuItemsRecord, String> NAME = createField(DSL.name("NAME"), org.jooq.impl.SQLDataType.VARCHAR.nullable(false), this, "");
 
     /**
      * Create a <code>PUBLIC.MENU_ITEMS</code> table reference
@@ -60,7 +60,7 @@ public class OpenHours extends TableImpl<OpenHoursRecord> {
     /**
      * The column <code>PUBLIC.OPEN_HOURS.DAY_OF_WEEK</code>.
      */
-    public final TableField<OpenHoursRecord, String> DAY_OF_WEEK = createField(DSL.name("DAY_OF_WEEK"), org.jooq.impl.SQLDataType.CLOB.nullable(false), this, "");
+    public final TableField<OpenHoursRecord, String> DAY_OF_WEEK = createField(DSL.name("DAY_OF_WEEK"), org.jooq.impl.SQLDataType.VARCHAR.nullable(false), this, "");
 
     /**
      * The column <code>PUBLIC.OPEN_HOURS.START_TIME_MINUTE_OF_DAY</code>.
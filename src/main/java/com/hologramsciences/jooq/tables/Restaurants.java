@@ -55,7 +55,7 @@ public class Restaurants extends TableImpl<RestaurantsRecord> {
     /**
      * The column <code>PUBLIC.RESTAURANTS.NAME</code>.
      */
-    public final TableField<RestaurantsRecord, String> NAME = createField(DSL.name("NAME"), org.jooq.impl.SQLDataType.CLOB, this, "");
+    public final TableField<RestaurantsRecord, String> NAME = createField(DSL.name("NAME"), org.jooq.impl.SQLDataType.VARCHAR, this, "");
 
     /**
      * Create a <code>PUBLIC.RESTAURANTS</code> table reference
@@ -1,6 +1,6 @@
 CREATE TABLE IF NOT EXISTS restaurants (
     id    BIGSERIAL NOT NULL PRIMARY KEY,
-    name  TEXT
+    name  VARCHAR
 );
 
 
@@ -9,7 +9,7 @@ CREATE TABLE IF NOT EXISTS open_hours (
     id                        BIGSERIAL NOT NULL PRIMARY KEY,
     restaurant_id             BIGINT NOT NULL REFERENCES restaurants (id),
 
-    day_of_week               TEXT NOT NULL,
+    day_of_week               VARCHAR NOT NULL,
     start_time_minute_of_day  INTEGER NOT NULL,
     end_time_minute_of_day    INTEGER NOT NULL
 );
@@ -19,5 +19,39 @@ CREATE TABLE IF NOT EXISTS menu_items (
     id                        BIGSERIAL NOT NULL PRIMARY KEY,
     restaurant_id             BIGINT NOT NULL REFERENCES restaurants (id),
 
-    name                      TEXT NOT NULL
+    name                      VARCHAR NOT NULL
 );
+
+-- The minutes of the week (0 = MONDAY 00:00) in which the restaurant of an open_hours row is open, cross-midnight
+-- rows split at midnight.  Maintained by com.hologramsciences.OpenHoursSpansTrigger, see there for the rules.
+CREATE TABLE IF NOT EXISTS open_hours_spans (
+
+    id                        BIGSERIAL NOT NULL PRIMARY KEY,
+    open_hours_id             BIGINT NOT NULL REFERENCES open_hours (id) ON DELETE CASCADE,
+    restaurant_id             BIGINT NOT NULL REFERENCES restaurants (id),
+
+    day_of_week_number        INTEGER NOT NULL,
+    start_minute_of_week      INTEGER NOT NULL,
+    end_minute_of_week        INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS open_hours_spans_start_end ON open_hours_spans (start_minute_of_week, end_minute_of_week, restaurant_id);
+
+CREATE TRIGGER IF NOT EXISTS open_hours_spans_maintenance AFTER INSERT, UPDATE ON open_hours FOR EACH ROW CALL 'com.hologramsciences.OpenHoursSpansTrigger';
+
+-- The number of menu_items of every restaurant that has any.  Maintained by com.hologramsciences.MenuItemCountTrigger,
+-- the insert below counts the menu_items of restaurants written before the trigger existed.
+CREATE TABLE IF NOT EXISTS menu_item_counts (
+
+    restaurant_id             BIGINT NOT NULL PRIMARY KEY REFERENCES restaurants (id),
+    menu_item_count           INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS menu_item_counts_count ON menu_item_counts (menu_item_count, restaurant_id);
+
+CREATE TRIGGER IF NOT EXISTS menu_item_counts_maintenance AFTER INSERT, UPDATE, DELETE ON menu_items FOR EACH ROW CALL 'com.hologramsciences.MenuItemCountTrigger';
+
+INSERT INTO menu_item_counts (restaurant_id, menu_item_count)
+    SELECT mi.restaurant_id, count(*) FROM menu_items mi
+    WHERE NOT EXISTS (SELECT 1 FROM menu_item_counts c WHERE c.restaurant_id = mi.restaurant_id)
+    GROUP BY mi.restaurant_id;
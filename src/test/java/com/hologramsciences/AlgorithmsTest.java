@@ -1,11 +1,20 @@
 package com.hologramsciences;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
 import static junit.framework.TestCase.assertTrue;
 
 public class AlgorithmsTest {
@@ -60,6 +69,189 @@ public class AlgorithmsTest {
         );
     }
 
+    @Test
+    public void cartesianProductIteratorMatchesTheEagerProduct() {
+        final Random random = new Random(42L);
+        for (int round = 0; round < 200; round++) {
+            final List<List<Integer>> listOfLists = randomLists(random, 2 + random.nextInt(4), 1 + random.nextInt(4));
+
+            final List<List<Integer>> expected = Algorithms.cartesianProductForLists(listOfLists);
+            assertEquals(expected, toList(Algorithms.cartesianProductIterator(listOfLists)));
+            assertEquals(expected, Algorithms.cartesianProductStream(listOfLists).collect(Collectors.toList()));
+
+            final List<List<Integer>> copies = new ArrayList<>();
+            Algorithms.cartesianProductIteratorReusingBuffer(listOfLists).forEachRemaining(tuple -> copies.add(new ArrayList<>(tuple)));
+            assertEquals(expected, copies);
+        }
+    }
+
+    @Test
+    public void cartesianProductIteratorIsLazy() {
+        final List<List<Integer>> listOfLists = Collections.nCopies(12, Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+        assertEquals(
+                Arrays.asList(
+                        Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0),
+                        Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1),
+                        Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2)
+                ),
+                Algorithms.cartesianProductStream(listOfLists).limit(3).collect(Collectors.toList())
+        );
+
+        final Iterator<List<Integer>> iterator = Algorithms.cartesianProductIteratorReusingBuffer(listOfLists);
+        final List<Integer> first = iterator.next();
+        for (int i = 0; i < 1234; i++) {
+            assertSame(first, iterator.next());
+        }
+        assertEquals(Arrays.asList(0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3, 4), first);
+    }
+
+    @Test
+    public void cartesianProductIteratorOfEmptyLists() {
+        assertFalse(Algorithms.cartesianProductIterator(Arrays.asList(Arrays.asList(1, 2), Collections.<Integer>emptyList(), Arrays.asList(3))).hasNext());
+        assertEquals(Collections.singletonList(Collections.emptyList()), toList(Algorithms.cartesianProductIterator(Collections.<List<Integer>>emptyList())));
+        assertEquals(Arrays.asList(Arrays.asList(1), Arrays.asList(2)), toList(Algorithms.cartesianProductIterator(Collections.singletonList(Arrays.asList(1, 2)))));
+    }
+
+    @Test
+    public void cartesianProductSpliteratorSplitsIntoExactHalves() {
+        final List<List<Integer>> listOfLists = Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5), Arrays.asList(6, 7, 8, 9, 10));
+        final List<List<Integer>> expected = Algorithms.cartesianProductForLists(listOfLists);
+
+        final Spliterator<List<Integer>> suffix = new CartesianProductSpliterator<>(listOfLists);
+        assertEquals(30, suffix.getExactSizeIfKnown());
+        final Spliterator<List<Integer>> prefix = suffix.trySplit();
+        assertEquals(15, prefix.getExactSizeIfKnown());
+        assertEquals(15, suffix.getExactSizeIfKnown());
+
+        final List<List<Integer>> tuples = new ArrayList<>();
+        assertTrue(prefix.tryAdvance(tuples::add));
+        final Spliterator<List<Integer>> prefixOfPrefix = prefix.trySplit();
+        prefixOfPrefix.forEachRemaining(tuples::add);
+        prefix.forEachRemaining(tuples::add);
+        suffix.forEachRemaining(tuples::add);
+        assertFalse(suffix.tryAdvance(tuples::add));
+
+        assertEquals(expected, tuples);
+    }
+
+    @Test
+    public void parallelCartesianProductStreamKeepsTheOrder() {
+        final Random random = new Random(7L);
+        for (int round = 0; round < 50; round++) {
+            final List<List<Integer>> listOfLists = randomLists(random, 2 + random.nextInt(5), 6);
+            assertEquals(Algorithms.cartesianProductForLists(listOfLists), Algorithms.cartesianProductStream(listOfLists, true).collect(Collectors.toList()));
+        }
+
+        // each of the 6 positions holds each digit in 100,000 of the 1,000,000 tuples
+        final List<List<Integer>> digits = Collections.nCopies(6, Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        assertEquals(6 * 45 * 100_000L, Algorithms.cartesianProductStream(digits, true).flatMap(List::stream).mapToLong(Integer::longValue).sum());
+        assertEquals(0L, Algorithms.cartesianProductStream(Arrays.asList(Arrays.asList(1), Collections.<Integer>emptyList()), true).count());
+    }
+
+    @Test
+    public void cartesianProductViewUnranksAndRanks() {
+        final Random random = new Random(11L);
+        for (int round = 0; round < 100; round++) {
+            final List<List<Integer>> listOfLists = randomLists(random, 2 + random.nextInt(4), 5);
+            final List<List<Integer>> expected = Algorithms.cartesianProductForLists(listOfLists);
+            final CartesianProductList<Integer> view = Algorithms.cartesianProductView(listOfLists);
+
+            assertEquals(expected.size(), view.size());
+            assertEquals(expected, view);
+            for (int rank = 0; rank < expected.size(); rank++) {
+                assertEquals(expected.get(rank), view.get(rank));
+                assertEquals(expected.indexOf(expected.get(rank)), view.rankOf(expected.get(rank)));
+            }
+            final int from = random.nextInt(expected.size());
+            assertEquals(expected.subList(from, expected.size()), view.getRange(from, expected.size()));
+        }
+    }
+
+    @Test
+    public void cartesianProductViewOfAHugeProduct() {
+        final List<Integer> digits = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        final CartesianProductList<Integer> trillion = Algorithms.cartesianProductView(Collections.nCopies(12, digits));
+        assertEquals(Integer.MAX_VALUE, trillion.size());
+        assertEquals(1_000_000_000_000L, trillion.getSize());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 0, 1, 2), trillion.get(123_456_789_012L));
+        assertEquals(123_456_789_012L, trillion.rankOf(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 0, 1, 2)));
+        assertEquals(Arrays.asList(
+                Arrays.asList(9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 8),
+                Arrays.asList(9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9)
+        ), trillion.getRange(999_999_999_998L, 1_000_000_000_000L));
+        assertEquals(-1L, trillion.rankOf(Arrays.asList(1, 2, 3)));
+        assertEquals(-1L, trillion.rankOf(Collections.nCopies(12, 10)));
+        assertFalse(trillion.contains(Collections.nCopies(12, 10)));
+
+        final CartesianProductList<Integer> googol = Algorithms.cartesianProductView(Collections.nCopies(100, digits));
+        assertEquals(BigInteger.TEN.pow(100), googol.getBigSize());
+        final BigInteger rank = BigInteger.TEN.pow(100).subtract(BigInteger.valueOf(2));
+        final List<Integer> tuple = googol.get(rank);
+        assertEquals(Integer.valueOf(8), tuple.get(99));
+        assertEquals(Integer.valueOf(9), tuple.get(0));
+        assertEquals(rank, googol.bigRankOf(tuple));
+        assertEquals(-1, googol.indexOf(tuple));
+    }
+
+    @Test
+    public void cartesianProductViewWithRepeatedElementsRanksTheFirstOccurrence() {
+        final CartesianProductList<String> view = Algorithms.cartesianProductView(Arrays.asList(Arrays.asList("A", "B", "A"), Arrays.asList("K", "L")));
+        assertEquals(Arrays.asList("A", "L"), view.get(5));
+        assertEquals(1L, view.rankOf(Arrays.asList("A", "L")));
+        assertEquals(0, Algorithms.cartesianProductView(Arrays.asList(Arrays.asList("A"), Collections.<String>emptyList())).size());
+    }
+
+    @Test
+    public void primitiveCartesianProductsMatchTheGenericOne() {
+        final Random random = new Random(3L);
+        for (int round = 0; round < 100; round++) {
+            final List<List<Integer>> listOfLists = randomLists(random, 2 + random.nextInt(4), 5);
+            final int[][] ints = listOfLists.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+            final long[][] longs = listOfLists.stream().map(list -> list.stream().mapToLong(Integer::longValue).toArray()).toArray(long[][]::new);
+
+            final int[] expected = Algorithms.cartesianProductForLists(listOfLists).stream().flatMap(List::stream).mapToInt(Integer::intValue).toArray();
+            assertTrue(Arrays.equals(expected, Algorithms.cartesianProductForInts(ints)));
+            assertTrue(Arrays.equals(Arrays.stream(expected).asLongStream().toArray(), Algorithms.cartesianProductForLongs(longs)));
+
+            final List<Integer> consumed = new ArrayList<>();
+            Algorithms.forEachCartesianProduct(ints, tuple -> Arrays.stream(tuple).forEach(consumed::add));
+            assertEquals(Arrays.stream(expected).boxed().collect(Collectors.toList()), consumed);
+        }
+    }
+
+    @Test
+    public void primitiveCartesianProductOfEmptyArrays() {
+        assertEquals(0, Algorithms.cartesianProductForInts(new int[]{1, 2}, new int[0]).length);
+        assertEquals(0, Algorithms.cartesianProductForLongs(new long[0]).length);
+        assertTrue(Arrays.equals(new int[]{1, 2}, Algorithms.cartesianProductForInts(new int[]{1, 2})));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void primitiveCartesianProductTooLargeForAnArray() {
+        final int[] thousand = new int[1000];
+        Algorithms.cartesianProductForInts(thousand, thousand, thousand, thousand);
+    }
+
+    private static List<List<Integer>> randomLists(final Random random, final int listCount, final int maximumSize) {
+        final List<List<Integer>> listOfLists = new ArrayList<>();
+        for (int i = 0; i < listCount; i++) {
+            final List<Integer> list = new ArrayList<>();
+            final int size = 1 + random.nextInt(maximumSize);
+            for (int j = 0; j < size; j++) {
+                list.add(random.nextInt(100));
+            }
+            listOfLists.add(list);
+        }
+        return listOfLists;
+    }
+
+    private static <T> List<T> toList(final Iterator<T> iterator) {
+        final List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
 
     @Test
     public void testWaysToMakeChange200Cents() {
@@ -70,5 +262,10 @@ public class AlgorithmsTest {
     public void testWaysToMakeChange20000Cents() {
         assertTrue(Algorithms.countNumWaysMakeChange(20000) == 4371565890901L);
     }
+
+    @Test(expected = ArithmeticException.class)
+    public void testWaysToMakeChangeFailsWhenALongOverflows() {
+        Algorithms.countNumWaysMakeChange(2_000_000);
+    }
 }
 
@@ -0,0 +1,159 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+public class CSVRestaurantReloaderTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        directory = Files.createTempDirectory("reloader");
+        file = directory.resolve("rest_hours.csv");
+        write(
+                "\"Burger Bar\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-22:00\"",
+                "\"Night Owl\",\"Fri,Sat|20:00-04:00\"",
+                "\"Noodle House\",\"Mon,Tue,Wed,Thu,Fri|09:00-15:00\""
+        );
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory.resolve("rest_hours.csv.tmp"));
+        Files.delete(directory);
+    }
+
+    @Test
+    public void reloadAppliesOnlyTheDifferences() throws IOException {
+        try (final CSVRestaurantReloader reloader = CSVRestaurantReloader.open(file)) {
+            final CSVRestaurantService service = reloader.getService();
+            final List<Restaurant> before = service.getAllRestaurants();
+            assertEquals(Arrays.asList("Burger Bar", "Night Owl", "Noodle House"), names(before));
+            assertEquals(0L, service.getDataVersion());
+
+            write(
+                    "\"Burger Bar\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-22:00\"",
+                    "\"Night Owl\",\"Fri,Sat|20:00-05:00\"",
+                    "\"Taco Stand\",\"Sat,Sun|10:00-14:00\""
+            );
+            final CSVRestaurantReloader.ReloadResult result = reloader.reload();
+
+            assertEquals(Collections.singletonList("Taco Stand"), result.getAdded());
+            assertEquals(Collections.singletonList("Night Owl"), result.getChanged());
+            assertEquals(Collections.singletonList("Noodle House"), result.getRemoved());
+
+            final List<Restaurant> after = service.getAllRestaurants();
+            assertEquals(Arrays.asList("Burger Bar", "Night Owl", "Taco Stand"), names(after));
+            assertSame(before.get(0), after.get(0));
+            assertEquals(1L, service.getDataVersion());
+
+            // the snapshot handed out before is unchanged
+            assertEquals(Arrays.asList("Burger Bar", "Night Owl", "Noodle House"), names(before));
+
+            assertEquals(Arrays.asList("Night Owl"), names(service.getOpenRestaurants(DayOfWeek.SUNDAY, LocalTime.of(4, 30))));
+            assertEquals(Arrays.asList("Burger Bar", "Taco Stand"), names(service.getOpenRestaurants(DayOfWeek.SUNDAY, LocalTime.NOON)));
+            assertEquals(Collections.emptyList(), names(service.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(9, 30))));
+
+            assertTrue(reloader.reload().isEmpty());
+            assertEquals(1L, service.getDataVersion());
+        }
+    }
+
+    @Test
+    public void unparsableLinesRemoveTheirRestaurant() throws IOException {
+        try (final CSVRestaurantReloader reloader = CSVRestaurantReloader.open(file)) {
+            write(
+                    "\"Burger Bar\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-11:00\"",
+                    "\"Night Owl\",\"Fri,Sat|20:00-04:00\"",
+                    "\"Noodle House\",\"Mon,Tue,Wed,Thu,Fri|09:00-15:00\""
+            );
+            assertEquals(Collections.singletonList("Burger Bar"), reloader.reload().getChanged());
+            assertEquals(Arrays.asList("Night Owl", "Noodle House"), names(reloader.getService().getAllRestaurants()));
+        }
+    }
+
+    @Test
+    public void unparsableNewLinesChangeNothing() throws IOException {
+        try (final CSVRestaurantReloader reloader = CSVRestaurantReloader.open(file)) {
+            final CSVRestaurantService service = reloader.getService();
+            final List<Restaurant> before = service.getAllRestaurants();
+            write(
+                    "\"Burger Bar\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-22:00\"",
+                    "\"Night Owl\",\"Fri,Sat|20:00-04:00\"",
+                    "\"Noodle House\",\"Mon,Tue,Wed,Thu,Fri|09:00-15:00\"",
+                    "\"Taco Stand\",\"Sat,Sun|10:00-10:00\""
+            );
+            reloader.reload();
+
+            assertSame(before, service.getAllRestaurants());
+            assertEquals(0L, service.getDataVersion());
+            assertFalse(service.update(Collections.emptyList(), Collections.singletonList("Taco Stand")));
+            assertEquals(0L, service.getDataVersion());
+        }
+    }
+
+    @Test
+    public void cacheIsInvalidatedByAReload() throws IOException {
+        try (final CSVRestaurantReloader reloader = CSVRestaurantReloader.open(file)) {
+            final OpenRestaurantsCache<Restaurant, RuntimeException> cache = OpenRestaurantsCache.of(reloader.getService());
+            assertEquals(Arrays.asList("Burger Bar", "Noodle House"), names(cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.NOON)));
+
+            write("\"Burger Bar\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-22:00\"");
+            reloader.reload();
+
+            assertEquals(Arrays.asList("Burger Bar"), names(cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.NOON)));
+        }
+    }
+
+    @Test
+    public void watchReloadsWhenTheFileIsReplaced() throws Exception {
+        try (final CSVRestaurantReloader reloader = CSVRestaurantReloader.open(file)) {
+            reloader.watch();
+
+            write(
+                    "\"Burger Bar\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-22:00\"",
+                    "\"Night Owl\",\"Fri,Sat|20:00-04:00\"",
+                    "\"Noodle House\",\"Mon,Tue,Wed,Thu,Fri|09:00-15:00\"",
+                    "\"Taco Stand\",\"Sat,Sun|10:00-14:00\""
+            );
+
+            // the polling WatchService of some platforms takes a few seconds
+            final long deadline = System.nanoTime() + 30_000_000_000L;
+            while (reloader.getService().getAllRestaurants().size() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(4, reloader.getService().getAllRestaurants().size());
+            assertEquals(0L, reloader.getFailedReloads());
+        }
+    }
+
+    private void write(final String... lines) throws IOException {
+        final Path temporary = directory.resolve("rest_hours.csv.tmp");
+        Files.write(temporary, Arrays.asList(lines), StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<String> names(final List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).collect(Collectors.toList());
+    }
+}
@@ -1,6 +1,9 @@
 package com.hologramsciences;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,10 +12,14 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
 
 public class CSVRestaurantServiceTest {
@@ -88,4 +95,47 @@ public class CSVRestaurantServiceTest {
                         csvRestaurantService.getAllRestaurants().stream().allMatch(r -> r.getOpenHoursMap().size() > 0 && r.getOpenHoursMap().values().stream().allMatch(oh -> !oh.getStartTime().equals(oh.getEndTime())))
         );
     }
+
+    @Test
+    public void streamOptionCSVMatchesParseOptionCSV() throws IOException {
+        try (final Stream<Restaurant> stream = ResourceLoader.streamOptionCSV("rest_hours.csv", CSVRestaurantService::parse)) {
+            assertEquals(
+                    csvRestaurantService.getAllRestaurants().stream().map(Restaurant::getName).collect(Collectors.toList()),
+                    stream.map(Restaurant::getName).collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    public void streamOptionCSVReadsLazilyAndReportsOnClose() throws IOException {
+        final Path file = Files.createTempFile("rest_hours", ".csv");
+        try {
+            Files.write(file, Arrays.asList(
+                    "\"Lunch Place\",\"Mon,Tue,Wed|11:00-14:00\"",
+                    "\"Same Start And End\",\"Mon|11:00-11:00\"",
+                    "\"Night Place\",\"Fri,Sat|18:00-02:00\"",
+                    "\"Brunch Place\",\"Sun|10:00-13:00\""
+            ), StandardCharsets.UTF_8);
+
+            final AtomicReference<ResourceLoader.LoadStatistics> statistics = new AtomicReference<>();
+            try (final Stream<Restaurant> stream = ResourceLoader.streamOptionCSV(file, CSVRestaurantService::parse, statistics::set)) {
+                assertEquals("Lunch Place", stream.findFirst().get().getName());
+                assertNull(statistics.get());
+            }
+
+            assertEquals(1, statistics.get().getRecordCount());
+            assertEquals(0, statistics.get().getRejectedCount());
+
+            try (final Stream<Restaurant> stream = ResourceLoader.streamOptionCSV(file, CSVRestaurantService::parse, statistics::set)) {
+                assertEquals(Arrays.asList("Lunch Place", "Night Place", "Brunch Place"), stream.map(Restaurant::getName).collect(Collectors.toList()));
+            }
+
+            assertEquals(4, statistics.get().getRecordCount());
+            assertEquals(3, statistics.get().getParsedCount());
+            assertEquals(1, statistics.get().getRejectedCount());
+            assertTrue(statistics.get().getRecordsPerSecond() > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
 }
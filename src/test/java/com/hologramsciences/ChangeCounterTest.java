@@ -0,0 +1,80 @@
+package com.hologramsciences;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class ChangeCounterTest {
+
+    @Test
+    public void matchesABruteForceCount() {
+        final ChangeCounter changeCounter = new ChangeCounter(7, 3, 3, 11);
+        assertTrue(Arrays.equals(new int[]{3, 7, 11}, changeCounter.getDenominations()));
+
+        for (int total = 0; total <= 200; total++) {
+            long expected = 0;
+            for (int elevens = 0; 11 * elevens <= total; elevens++) {
+                for (int sevens = 0; 11 * elevens + 7 * sevens <= total; sevens++) {
+                    if ((total - 11 * elevens - 7 * sevens) % 3 == 0) {
+                        expected++;
+                    }
+                }
+            }
+            assertEquals("total " + total, expected, changeCounter.count(total));
+            assertEquals(BigInteger.valueOf(expected), changeCounter.countExact(total));
+        }
+    }
+
+    @Test
+    public void usCoins() {
+        assertEquals(1L, ChangeCounter.US_COINS.count(0));
+        assertEquals(2728L, ChangeCounter.US_COINS.count(200));
+        assertEquals(4371565890901L, ChangeCounter.US_COINS.count(20000));
+        assertEquals(0L, new ChangeCounter().count(5));
+    }
+
+    @Test
+    public void countsBeyondALong() {
+        final int[] denominations = new int[40];
+        for (int i = 0; i < denominations.length; i++) {
+            denominations[i] = i + 1;
+        }
+        final ChangeCounter changeCounter = new ChangeCounter(denominations);
+        final int total = 3000;
+
+        final BigInteger expected = bigIntegerCount(denominations, total);
+        assertTrue(expected.bitLength() > 100);
+
+        assertEquals(expected, changeCounter.countExact(total));
+        assertEquals(expected.mod(BigInteger.valueOf(1_000_000_007L)).longValue(), changeCounter.countModulo(total, 1_000_000_007L));
+        assertEquals(expected.mod(BigInteger.ONE.shiftLeft(62)).longValue(), changeCounter.countModulo(total, 1L << 62));
+    }
+
+    @Test
+    public void exactCountOfALargeAmountOfUSCoins() {
+        final BigInteger count = ChangeCounter.US_COINS.countExact(2_000_000);
+        assertEquals(BigInteger.valueOf(ChangeCounter.US_COINS.countModulo(2_000_000, 1_000_000_007L)), count.mod(BigInteger.valueOf(1_000_000_007L)));
+        assertTrue(count.bitLength() > 63);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void countFailsWhenALongOverflows() {
+        ChangeCounter.US_COINS.count(2_000_000);
+    }
+
+    private static BigInteger bigIntegerCount(final int[] denominations, final int total) {
+        final BigInteger[] ways = new BigInteger[total + 1];
+        Arrays.fill(ways, BigInteger.ZERO);
+        ways[0] = BigInteger.ONE;
+        for (final int coin : denominations) {
+            for (int value = coin; value <= total; value++) {
+                ways[value] = ways[value].add(ways[value - coin]);
+            }
+        }
+        return ways[total];
+    }
+}
@@ -0,0 +1,162 @@
+package com.hologramsciences;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public class ChunkedIdLookupTest {
+
+    @Test
+    public void chunksHoldTheDistinctIdsInOrder() {
+        final List<Long[]> chunks = ChunkedIdLookup.chunks(Arrays.asList(5L, 3L, 5L, 1L, 4L, 3L, 2L), 2);
+
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList(5L, 3L), Arrays.asList(chunks.get(0)));
+        assertEquals(Arrays.asList(1L, 4L), Arrays.asList(chunks.get(1)));
+        assertEquals(Arrays.asList(2L), Arrays.asList(chunks.get(2)));
+        assertTrue(ChunkedIdLookup.chunks(Collections.emptyList(), 2).isEmpty());
+    }
+
+    @Test
+    public void rowsComeBackInTheOrderOfTheIds() throws Exception {
+        final List<Long> ids = LongStream.range(0, 10_000).map(i -> (i * 7919) % 10_000).boxed().collect(Collectors.toList());
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // rows in reverse order, without the ids divisible by 3
+        final ChunkedIdLookup.ChunkQuery<Long> chunkQuery = chunk -> {
+            threads.add(Thread.currentThread().getName());
+            final List<Long> rows = new ArrayList<>();
+            for (int i = chunk.length - 1; i >= 0; i--) {
+                if (chunk[i] % 3 != 0) {
+                    rows.add(chunk[i]);
+                }
+            }
+            return rows;
+        };
+        final List<Long> expected = ids.stream().filter(id -> id % 3 != 0).collect(Collectors.toList());
+
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(4))) {
+            assertEquals(expected, ChunkedIdLookup.lookup(queryExecutor, ids, 100, chunkQuery, Long::longValue));
+            threads.clear();
+            assertEquals(expected, ChunkedIdLookup.lookupAsync(queryExecutor, ids, 100, chunkQuery, Long::longValue).get(10, TimeUnit.SECONDS));
+        }
+        assertTrue(threads.toString(), threads.stream().allMatch(name -> name.startsWith("restaurant-query-")));
+    }
+
+    @Test
+    public void lookupRunsMoreChunksThanTheQueryExecutorTakes() throws Exception {
+        final List<Long> ids = LongStream.range(0, 100).boxed().collect(Collectors.toList());
+        final ChunkedIdLookup.ChunkQuery<Long> chunkQuery = chunk -> Arrays.asList(chunk);
+
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(1).withQueueCapacity(1))) {
+            assertEquals(Arrays.asList(1L, 2L, 3L, 4L), ChunkedIdLookup.lookup(queryExecutor, Arrays.asList(1L, 2L, 3L, 4L), 1, chunkQuery, Long::longValue));
+            assertEquals(0, queryExecutor.getRejectedQueries());
+        }
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(3).withQueueCapacity(1))) {
+            assertEquals(ids, ChunkedIdLookup.lookup(queryExecutor, ids, 1, chunkQuery, Long::longValue));
+        }
+    }
+
+    @Test
+    public void lookupKeepsWorkingWhenTheQueryExecutorIsFull() throws Exception {
+        final List<Long> ids = LongStream.range(0, 20).boxed().collect(Collectors.toList());
+        final CountDownLatch release = new CountDownLatch(1);
+
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(2).withQueueCapacity(1))) {
+            for (int i = 0; i < 3; i++) {
+                queryExecutor.submit(() -> release.await(10, TimeUnit.SECONDS));
+            }
+            try {
+                assertEquals(ids, ChunkedIdLookup.lookup(queryExecutor, ids, 3, chunk -> Arrays.asList(chunk), Long::longValue));
+                assertEquals(1, queryExecutor.getRejectedQueries());
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    public void lookupOnTheQueryExecutorDoesNotWaitForItself() throws Exception {
+        final List<Long> ids = LongStream.range(0, 50).boxed().collect(Collectors.toList());
+
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(2).withQueueCapacity(10))) {
+            // both threads of the QueryExecutor run a lookup, their helpers wait in the queue
+            final List<CompletableFuture<List<Long>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                lookups.add(queryExecutor.submit(() -> ChunkedIdLookup.lookup(queryExecutor, ids, 5, chunk -> Arrays.asList(chunk), Long::longValue)));
+            }
+            for (final CompletableFuture<List<Long>> lookup : lookups) {
+                assertEquals(ids, lookup.get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    public void lookupIsNotLimitedByTheTimeoutOfTheQueryExecutor() throws Exception {
+        final ChunkedIdLookup.ChunkQuery<Long> slowChunkQuery = chunk -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            return Arrays.asList(chunk);
+        };
+
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(2).withTimeout(Duration.ofMillis(20)))) {
+            assertEquals(Arrays.asList(1L, 2L, 3L, 4L), ChunkedIdLookup.lookup(queryExecutor, Arrays.asList(1L, 2L, 3L, 4L), 1, slowChunkQuery, Long::longValue));
+            assertEquals(0, queryExecutor.getTimedOutQueries());
+        }
+    }
+
+    @Test
+    public void aSingleChunkRunsOnTheCallingThread() throws Exception {
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig())) {
+            final List<String> threads = ChunkedIdLookup.lookup(queryExecutor, Arrays.asList(1L, 2L), 2, chunk -> Collections.singletonList(Thread.currentThread().getName()), name -> 1L);
+
+            assertEquals(Collections.singletonList(Thread.currentThread().getName()), threads);
+        }
+    }
+
+    @Test
+    public void failedChunksFailTheLookup() throws Exception {
+        final ChunkedIdLookup.ChunkQuery<Long> chunkQuery = chunk -> {
+            if (chunk[0] == 2L) {
+                throw new SQLException("broken");
+            }
+            return Arrays.asList(chunk);
+        };
+
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig())) {
+            try {
+                ChunkedIdLookup.lookup(queryExecutor, Arrays.asList(1L, 2L, 3L), 1, chunkQuery, Long::longValue);
+                fail();
+            } catch (SQLException e) {
+                assertEquals("broken", e.getMessage());
+            }
+
+            try {
+                ChunkedIdLookup.lookupAsync(queryExecutor, Arrays.asList(1L, 2L, 3L), 1, chunkQuery, Long::longValue).get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+            }
+        }
+    }
+}
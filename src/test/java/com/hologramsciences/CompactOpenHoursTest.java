@@ -0,0 +1,80 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+public class CompactOpenHoursTest {
+
+    @Test
+    public void isOpenMatchesCSVRestaurantServiceForEveryMinuteOfTheWeek() throws IOException {
+        final List<Restaurant> restaurants = new ArrayList<>(new CSVRestaurantService().getAllRestaurants());
+        restaurants.add(restaurant("Short Overnight", LocalTime.of(23, 30), LocalTime.of(0, 45)));
+        restaurants.add(restaurant("Less Than An Hour Back", LocalTime.of(23, 30), LocalTime.of(23, 0)));
+        restaurants.add(restaurant("Almost All Day", LocalTime.of(3, 1), LocalTime.of(3, 0)));
+        restaurants.add(restaurant("Midnight Start", LocalTime.MIDNIGHT, LocalTime.of(4, 0)));
+        restaurants.add(restaurant("Early Close", LocalTime.of(22, 0), LocalTime.of(5, 0)));
+
+        final short[] table = new short[restaurants.size() * CompactOpenHours.SHORTS_PER_RESTAURANT];
+        for (int i = 0; i < restaurants.size(); i++) {
+            CompactOpenHours.encode(restaurants.get(i).getOpenHoursMap(), table, i * CompactOpenHours.SHORTS_PER_RESTAURANT);
+        }
+
+        for (int i = 0; i < restaurants.size(); i++) {
+            final Restaurant restaurant = restaurants.get(i);
+            final CompactOpenHours compactOpenHours = CompactOpenHours.of(restaurant);
+
+            for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                for (int minuteOfDay = 0; minuteOfDay < OpenHoursSlots.MINUTES_PER_DAY; minuteOfDay++) {
+                    final boolean expected = CSVRestaurantService.isOpen(restaurant, dayOfWeek, OpenHoursParser.localTimeOf(minuteOfDay));
+                    final String message = restaurant.getName() + " " + dayOfWeek + " " + minuteOfDay;
+
+                    assertEquals(message, expected, compactOpenHours.isOpen(dayOfWeek, minuteOfDay));
+                    assertEquals(message, expected, CompactOpenHours.isOpen(table, i * CompactOpenHours.SHORTS_PER_RESTAURANT, dayOfWeek, minuteOfDay));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundTripsThroughOpenHoursMap() throws IOException {
+        for (final Restaurant restaurant : new CSVRestaurantService().getAllRestaurants()) {
+            final Restaurant decoded = CompactOpenHours.of(restaurant).toRestaurant(restaurant.getName());
+
+            assertEquals(restaurant.getName(), decoded.getName());
+            assertEquals(restaurant.getOpenHoursMap().toString(), decoded.getOpenHoursMap().toString());
+        }
+    }
+
+    @Test
+    public void convertsFromPackedOpenHours() {
+        final OpenHoursParser.PackedOpenHours packed = new OpenHoursParser.PackedOpenHours();
+        OpenHoursParser.parse("Mon,Tue|11:00-22:00;Sat|20:00-02:00", packed);
+
+        final CompactOpenHours compactOpenHours = CompactOpenHours.of(packed);
+
+        assertEquals(CompactOpenHours.of(OpenHoursParser.parseOpenHoursMap("Mon,Tue|11:00-22:00;Sat|20:00-02:00")).toString(), compactOpenHours.toString());
+        assertTrue(compactOpenHours.hasOpenHours(DayOfWeek.TUESDAY));
+        assertFalse(compactOpenHours.hasOpenHours(DayOfWeek.WEDNESDAY));
+        assertEquals(20 * 60, compactOpenHours.getStartMinuteOfDay(DayOfWeek.SATURDAY));
+        assertEquals(2 * 60, compactOpenHours.getEndMinuteOfDay(DayOfWeek.SATURDAY));
+        assertTrue(compactOpenHours.isOpen(DayOfWeek.SUNDAY, 60));
+    }
+
+    private static Restaurant restaurant(final String name, final LocalTime startTime, final LocalTime endTime) {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        openHoursMap.put(DayOfWeek.FRIDAY, new Restaurant.OpenHours(startTime, endTime));
+        openHoursMap.put(DayOfWeek.SUNDAY, new Restaurant.OpenHours(startTime, endTime));
+        return new Restaurant(name, openHoursMap);
+    }
+}
@@ -0,0 +1,189 @@
+package com.hologramsciences;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public class ConnectionPoolTest {
+    private static final ConnectionPoolConfig config = new ConnectionPoolConfig("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1", "sa", "sa");
+
+    @Test
+    public void reusesPhysicalConnections() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMinimumSize(1).withMaximumSize(2))) {
+            assertEquals(1, pool.getIdleConnections());
+
+            final Connection first = pool.getConnection();
+            final Connection physical = first.unwrap(Connection.class);
+            assertEquals(1, pool.getActiveConnections());
+            assertEquals(0, pool.getIdleConnections());
+            first.close();
+
+            try (final Connection second = pool.getConnection()) {
+                assertSame(physical, second.unwrap(Connection.class));
+            }
+            assertEquals(1, pool.getOpenConnections());
+            assertEquals(2, pool.getAcquireWaitTime().getCount());
+        }
+    }
+
+    @Test
+    public void closedConnectionsRejectFurtherUseAndCloseTheirStatements() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config)) {
+            final Connection connection = pool.getConnection();
+            final Statement statement = connection.createStatement();
+            connection.close();
+            connection.close();
+
+            assertTrue(connection.isClosed());
+            assertTrue(statement.isClosed());
+            assertEquals(0, pool.getActiveConnections());
+            try {
+                connection.createStatement();
+                fail("Expected an SQLException");
+            } catch (SQLException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void timesOutWhenAllConnectionsAreInUse() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1).withAcquireTimeout(Duration.ofMillis(50)))) {
+            final Connection held = pool.getConnection();
+            try {
+                pool.getConnection();
+                fail("Expected an SQLTimeoutException");
+            } catch (SQLTimeoutException e) {
+                assertEquals(1, pool.getActiveConnections());
+                assertTrue(pool.getAcquireWaitTime().getMaxNanos() >= Duration.ofMillis(50).toNanos());
+            } finally {
+                held.close();
+            }
+
+            try (final Connection connection = pool.getConnection()) {
+                assertFalse(connection.isClosed());
+            }
+        }
+    }
+
+    @Test
+    public void replacesConnectionsWhichFailValidation() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1))) {
+            try (final Connection connection = pool.getConnection()) {
+                connection.unwrap(Connection.class).close();
+            }
+
+            try (final Connection connection = pool.getConnection();
+                 final Statement statement = connection.createStatement();
+                 final ResultSet resultSet = statement.executeQuery("select 1")) {
+                assertTrue(resultSet.next());
+            }
+            assertEquals(1, pool.getOpenConnections());
+        }
+    }
+
+    @Test
+    public void reportsConnectionsHeldPastTheLeakDetectionThreshold() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withLeakDetectionThreshold(Duration.ofMillis(20)))) {
+            final Connection connection = pool.getConnection();
+            try {
+                Thread.sleep(200);
+            } finally {
+                connection.close();
+            }
+            assertEquals(1, pool.getLeaksDetected());
+        }
+    }
+
+    @Test
+    public void reusesPreparedStatementsBySqlText() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1))) {
+            for (int i = 0; i < 3; i++) {
+                try (final Connection connection = pool.getConnection();
+                     final PreparedStatement statement = connection.prepareStatement("select ? + 1")) {
+                    statement.setInt(1, i);
+                    try (final ResultSet resultSet = statement.executeQuery()) {
+                        assertTrue(resultSet.next());
+                        assertEquals(i + 1, resultSet.getInt(1));
+                    }
+                }
+            }
+            assertEquals(1, pool.getStatementCacheMisses());
+            assertEquals(2, pool.getStatementCacheHits());
+        }
+    }
+
+    @Test
+    public void closingACachedStatementClosesItsResultSet() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1))) {
+            try (final Connection connection = pool.getConnection()) {
+                final PreparedStatement statement = connection.prepareStatement("select 1");
+                final ResultSet resultSet = statement.executeQuery();
+                statement.close();
+
+                assertTrue(statement.isClosed());
+                assertTrue(resultSet.isClosed());
+                assertSame(statement, connection.prepareStatement("select 1"));
+            }
+        }
+    }
+
+    @Test
+    public void givingBackACachedStatementResetsItsSettings() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1));
+             final Connection connection = pool.getConnection()) {
+            final PreparedStatement statement = connection.prepareStatement("select 1");
+            final int fetchSize = statement.getFetchSize();
+            final int maxRows = statement.getMaxRows();
+            final int queryTimeout = statement.getQueryTimeout();
+            statement.setFetchSize(2);
+            statement.setMaxRows(1);
+            statement.setQueryTimeout(30);
+            statement.close();
+
+            try (final PreparedStatement reused = connection.prepareStatement("select 1")) {
+                assertSame(statement, reused);
+                assertEquals(fetchSize, reused.getFetchSize());
+                assertEquals(maxRows, reused.getMaxRows());
+                assertEquals(queryTimeout, reused.getQueryTimeout());
+            }
+        }
+    }
+
+    @Test
+    public void preparesAnUncachedStatementWhenTheCachedOneIsInUse() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1));
+             final Connection connection = pool.getConnection();
+             final PreparedStatement first = connection.prepareStatement("select 1");
+             final PreparedStatement second = connection.prepareStatement("select 1")) {
+            assertNotSame(first, second);
+            assertEquals(2, pool.getStatementCacheMisses());
+        }
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedStatement() throws Exception {
+        try (final ConnectionPool pool = new ConnectionPool(config.withMaximumSize(1).withStatementCacheSize(2));
+             final Connection connection = pool.getConnection()) {
+            for (final String sql : Arrays.asList("select 1", "select 2", "select 1", "select 3", "select 1", "select 2")) {
+                connection.prepareStatement(sql).close();
+            }
+            assertEquals(2, pool.getStatementCacheHits());
+            assertEquals(4, pool.getStatementCacheMisses());
+        }
+    }
+}
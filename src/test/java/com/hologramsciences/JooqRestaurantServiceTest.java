@@ -6,13 +6,19 @@ import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.hologramsciences.jooq.tables.records.RestaurantsRecord;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
 public class JooqRestaurantServiceTest {
@@ -53,4 +59,84 @@ public class JooqRestaurantServiceTest {
         assertTrue(names.equals(expectedNames));
     }
 
+    @Test
+    public void getAllRestaurantRecordsWithIdsAsync() throws Exception {
+        final List<RestaurantsRecord> restaurantRecords = jooqRestaurantService.getAllRestaurantRecordsWithIdsAsync(Arrays.asList(28L, 29L)).get(10, TimeUnit.SECONDS);
+        final Set<Long> ids = restaurantRecords.stream().map(RestaurantsRecord::getId).collect(Collectors.toSet());
+        assertTrue(ids.equals(Arrays.asList(28L, 29L).stream().collect(Collectors.toSet())));
+    }
+
+    @Test
+    public void getAllRestaurantRecordsWithIdsKeepsTheOrderOfTheIds() throws Exception {
+        final List<RestaurantsRecord> restaurantRecords = jooqRestaurantService.getAllRestaurantRecordsWithIds(Arrays.asList(29L, 28L, 29L, -1L));
+        assertEquals(Arrays.asList(29L, 28L), restaurantRecords.stream().map(RestaurantsRecord::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void getAllRestaurantRecordsWithIdsIsAPrimaryKeyLookup() throws Exception {
+        final String plan = jooqRestaurantService.withDSLContext(create ->
+                create.explain(JooqRestaurantService.restaurantsWithIdsQuery(create, new Long[] { 28L, 29L })).plan()
+        );
+
+        assertTrue(plan, plan.contains("/* PUBLIC.PRIMARY_KEY_B: ID IN("));
+        assertFalse(plan, plan.contains("tableScan"));
+    }
+
+    @Test
+    public void streamOpenRestaurantsMatchesGetOpenRestaurants() throws Exception {
+        final List<Long> expectedIds = jooqRestaurantService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT).stream().map(RestaurantsRecord::getId).collect(Collectors.toList());
+
+        try (final Stream<RestaurantsRecord> restaurantRecords = jooqRestaurantService.streamOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT, 2)) {
+            assertEquals(expectedIds, restaurantRecords.map(RestaurantsRecord::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void streamsDoNotLeaveTheirFetchSizeOnTheCachedStatement() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig(SQLRestaurantService.DEFAULT_URL, "sa", "sa").withMaximumSize(1))) {
+            final JooqRestaurantService singleConnectionService = new JooqRestaurantService(new SQLRestaurantService(connectionPool));
+            final String sql = JooqRestaurantService.openRestaurantsQuery(DSL.using(SQLDialect.H2), DayOfWeek.SATURDAY, LocalTime.NOON).getSQL();
+            final int defaultFetchSize = SQLRestaurantServiceTest.fetchSizeOf(connectionPool, sql);
+
+            try (final Stream<RestaurantsRecord> restaurantRecords = singleConnectionService.streamOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.NOON, 2)) {
+                assertTrue(restaurantRecords.count() > 0);
+            }
+            assertFalse(singleConnectionService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.NOON).isEmpty());
+
+            assertEquals(defaultFetchSize, SQLRestaurantServiceTest.fetchSizeOf(connectionPool, sql));
+            assertEquals(1, connectionPool.getOpenConnections());
+        }
+    }
+
+    @Test
+    public void streamAllRestaurantsHoldsAConnectionUntilClosed() throws Exception {
+        final ConnectionPool connectionPool = jooqRestaurantService.getSQLRestaurantService().getConnectionPool();
+        final int activeConnections = connectionPool.getActiveConnections();
+
+        try (final Stream<RestaurantsRecord> restaurantRecords = jooqRestaurantService.streamAllRestaurants(1)) {
+            assertEquals(activeConnections + 1, connectionPool.getActiveConnections());
+            final List<String> names = restaurantRecords.map(RestaurantsRecord::getName).collect(Collectors.toList());
+            assertTrue(names.contains("Sudachi"));
+        }
+        assertEquals(activeConnections, connectionPool.getActiveConnections());
+    }
+
+    @Test
+    public void getOpenRestaurantsIsAnIndexRangeScan() throws Exception {
+        final String plan = jooqRestaurantService.withDSLContext(create ->
+                create.explain(JooqRestaurantService.openRestaurantsQuery(create, DayOfWeek.SATURDAY, LocalTime.of(2, 0))).plan()
+        );
+
+        SQLRestaurantServiceTest.assertIndexRangeScan(plan);
+    }
+
+    @Test
+    public void getRestaurantsWithMenuOfSizeIsAnIndexRangeScan() throws Exception {
+        final String plan = jooqRestaurantService.withDSLContext(create ->
+                create.explain(JooqRestaurantService.menuSizeQuery(create, 3)).plan()
+        );
+
+        assertTrue(plan, plan.contains("/* PUBLIC.MENU_ITEM_COUNTS_COUNT: MENU_ITEM_COUNT >= "));
+        assertFalse(plan, plan.contains("tableScan"));
+    }
 }
@@ -0,0 +1,73 @@
+package com.hologramsciences;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+
+public class MenuItemCountTriggerTest {
+
+    @Test
+    public void countsFollowInsertsUpdatesAndDeletes() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:menu_item_counts;DB_CLOSE_DELAY=-1", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+            sqlRestaurantService.initializeSchema();
+
+            sqlRestaurantService.runOnStatement(statement -> {
+                statement.execute("insert into restaurants (id, name) values (1, 'Noodle Bar'), (2, 'Taqueria')");
+                statement.execute("insert into menu_items (id, restaurant_id, name) values (1, 1, 'Ramen'), (2, 1, 'Udon'), (3, 1, 'Soba'), (4, 2, 'Al Pastor')");
+            });
+            assertEquals(Arrays.asList("1 3", "2 1"), storedCounts(sqlRestaurantService));
+
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("update menu_items set restaurant_id = 2 where id = 3"));
+            assertEquals(Arrays.asList("1 2", "2 2"), storedCounts(sqlRestaurantService));
+
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("update menu_items set name = 'Tonkotsu Ramen' where id = 1"));
+            assertEquals(Arrays.asList("1 2", "2 2"), storedCounts(sqlRestaurantService));
+
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("delete from menu_items where restaurant_id = 2"));
+            assertEquals(Arrays.asList("1 2"), storedCounts(sqlRestaurantService));
+
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("delete from menu_items"));
+            assertEquals(Collections.emptyList(), storedCounts(sqlRestaurantService));
+        }
+    }
+
+    @Test
+    public void initializeSchemaCountsExistingMenuItems() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:menu_item_counts_migration;DB_CLOSE_DELAY=-1", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+
+            // menu_items as it was before menu_item_counts
+            sqlRestaurantService.runOnStatement(statement -> {
+                statement.execute("create table restaurants (id bigserial not null primary key, name text)");
+                statement.execute("create table menu_items (id bigserial not null primary key, restaurant_id bigint not null references restaurants (id), name text not null)");
+                statement.execute("insert into restaurants (id, name) values (1, 'Noodle Bar')");
+                statement.execute("insert into menu_items (restaurant_id, name) values (1, 'Ramen'), (1, 'Udon')");
+            });
+
+            sqlRestaurantService.initializeSchema();
+            sqlRestaurantService.initializeSchema();
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("insert into menu_items (restaurant_id, name) values (1, 'Soba')"));
+
+            assertEquals(Arrays.asList("1 3"), storedCounts(sqlRestaurantService));
+        }
+    }
+
+    private static List<String> storedCounts(final SQLRestaurantService sqlRestaurantService) throws Exception {
+        final List<String> counts = new ArrayList<>();
+        sqlRestaurantService.runOnStatement(statement -> {
+            try (final ResultSet rs = statement.executeQuery("select restaurant_id, menu_item_count from menu_item_counts order by restaurant_id")) {
+                while (rs.next()) {
+                    counts.add(rs.getLong(1) + " " + rs.getInt(2));
+                }
+            }
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,139 @@
+package com.hologramsciences;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hologramsciences.jooq.tables.records.RestaurantsRecord;
+import com.hologramsciences.sql.RestaurantRecord;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+public class MetricsTest {
+
+    @Before
+    public void resetMetrics() {
+        Metrics.reset();
+    }
+
+    @After
+    public void disableMetrics() {
+        Metrics.disable();
+        Metrics.setTraceListener(null);
+        Metrics.reset();
+    }
+
+    @Test
+    public void disabledMetricsRecordNothing() throws Exception {
+        final CSVRestaurantService csvRestaurantService = new CSVRestaurantService();
+        csvRestaurantService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT);
+
+        final MetricsSnapshot snapshot = Metrics.snapshot();
+        snapshot.getTimers().values().forEach(timer -> assertEquals(0, timer.getCount()));
+        snapshot.getCounters().values().forEach(value -> assertEquals(0L, (long) value));
+    }
+
+    @Test
+    public void enabledMetricsCoverTheServices() throws Exception {
+        Metrics.enable();
+
+        final CSVRestaurantService csvRestaurantService = new CSVRestaurantService();
+        final List<Restaurant> restaurants = csvRestaurantService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT);
+
+        final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService();
+        sqlRestaurantService.initializeDatabase();
+        final List<RestaurantRecord> restaurantRecords = sqlRestaurantService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT);
+        final List<RestaurantsRecord> jooqRestaurantRecords = new JooqRestaurantService(sqlRestaurantService).getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.MIDNIGHT);
+
+        final MetricsSnapshot snapshot = Metrics.snapshot();
+        assertEquals(1, snapshot.getTimer("csv.getOpenRestaurants").getCount());
+        assertEquals(restaurants.size(), snapshot.getCounter("csv.getOpenRestaurants.rowsReturned"));
+        assertEquals(1, snapshot.getTimer("sql.getOpenRestaurants").getCount());
+        assertEquals(restaurantRecords.size(), snapshot.getCounter("sql.getOpenRestaurants.rowsReturned"));
+        assertEquals(1, snapshot.getTimer("jooq.getOpenRestaurants").getCount());
+        assertEquals(jooqRestaurantRecords.size(), snapshot.getCounter("jooq.getOpenRestaurants.rowsReturned"));
+        assertEquals(1, snapshot.getTimer("sql.initializeDatabase").getCount());
+        assertTrue(snapshot.getTimer("connectionPool.acquire").getCount() >= 3);
+        assertEquals(restaurantRecords.size() + jooqRestaurantRecords.size(), snapshot.getCounter("sql.rowsFetched"));
+
+        assertEquals(1, snapshot.getTimer("resourceLoader.parse").getCount());
+        assertEquals(csvRestaurantService.getAllRestaurants().size(), snapshot.getCounter("resourceLoader.recordsParsed"));
+        assertTrue(snapshot.getCounter("resourceLoader.recordsScanned") >= snapshot.getCounter("resourceLoader.recordsParsed"));
+    }
+
+    @Test
+    public void rowsFetchedCountsTheRowsStreamsRead() throws Exception {
+        final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService();
+        sqlRestaurantService.initializeDatabase();
+        final JooqRestaurantService jooqRestaurantService = new JooqRestaurantService(sqlRestaurantService);
+        Metrics.enable();
+
+        try (final Stream<RestaurantRecord> restaurantRecords = sqlRestaurantService.streamAllRestaurants(2)) {
+            assertEquals(3, restaurantRecords.limit(3).count());
+        }
+        try (final Stream<RestaurantsRecord> restaurantRecords = jooqRestaurantService.streamAllRestaurants(2)) {
+            assertEquals(2, restaurantRecords.limit(2).count());
+        }
+
+        assertEquals(5, Metrics.SQL_ROWS_FETCHED.get());
+    }
+
+    @Test
+    public void traceListenerSeesEveryTimedCall() throws Exception {
+        final Map<String, Long> durations = new ConcurrentHashMap<>();
+        Metrics.setTraceListener((name, startNanos, durationNanos) -> durations.merge(name, durationNanos, Long::sum));
+        Metrics.enable();
+
+        new CSVRestaurantService().getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.NOON);
+
+        assertTrue(durations.toString(), durations.containsKey("csv.getOpenRestaurants"));
+        assertEquals(1, Metrics.CSV_OPEN_RESTAURANTS.getHistogram().getCount());
+    }
+
+    @Test
+    public void inMemoryExporterKeepsTheLatestSnapshots() throws Exception {
+        final InMemoryMetricsExporter exporter = new InMemoryMetricsExporter(2);
+        assertNull(exporter.getLatest());
+
+        Metrics.enable();
+        for (int i = 1; i <= 3; i++) {
+            Metrics.SQL_ROWS_FETCHED.increment();
+            Metrics.export(exporter);
+        }
+
+        assertEquals(2, exporter.getSnapshots().size());
+        assertEquals(2, exporter.getSnapshots().get(0).getCounter("sql.rowsFetched"));
+        assertEquals(3, exporter.getLatest().getCounter("sql.rowsFetched"));
+    }
+
+    @Test
+    public void fileExporterAppendsALinePerMetric() throws Exception {
+        final Path file = Files.createTempFile("metrics", ".log");
+        try {
+            Metrics.enable();
+            Metrics.CSV_OPEN_RESTAURANTS.record(1_000_000);
+
+            final FileMetricsExporter exporter = new FileMetricsExporter(file);
+            Metrics.export(exporter);
+            Metrics.export(exporter);
+
+            final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(2 * Metrics.snapshot().toLines().size(), lines.size());
+            assertTrue(lines.toString(), lines.stream().anyMatch(line -> line.contains(" timer csv.getOpenRestaurants count=1 meanMicros=1000.0")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
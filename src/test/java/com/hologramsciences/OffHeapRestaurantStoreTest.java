@@ -0,0 +1,103 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static com.hologramsciences.OpenHoursSlots.SLOTS_PER_WEEK;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.fail;
+
+public class OffHeapRestaurantStoreTest {
+
+    @Test
+    public void getOpenRestaurantsMatchesCSVRestaurantServiceForEverySlotOfTheWeek() throws IOException {
+        final List<Restaurant> restaurants = new ArrayList<>(new CSVRestaurantService().getAllRestaurants());
+        restaurants.add(restaurant("Short Overnight", LocalTime.of(23, 30), LocalTime.of(0, 45)));
+        restaurants.add(restaurant("Midnight Start", LocalTime.MIDNIGHT, LocalTime.of(4, 0)));
+        restaurants.add(restaurant("Early Close", LocalTime.of(22, 0), LocalTime.of(5, 0)));
+        restaurants.add(restaurant("Café Ümläut", LocalTime.of(6, 0), LocalTime.of(23, 59)));
+
+        final CSVRestaurantService csvRestaurantService = new CSVRestaurantService(restaurants);
+        final OffHeapRestaurantStore store = OffHeapRestaurantStore.of(restaurants);
+
+        for (int slot = 0; slot < SLOTS_PER_WEEK; slot++) {
+            final DayOfWeek dayOfWeek = OpenHoursSlots.dayOfWeekOfSlot(slot);
+            final LocalTime localTime = OpenHoursSlots.localTimeOfSlot(slot);
+
+            assertEquals(dayOfWeek + " " + localTime,
+                    names(csvRestaurantService.getOpenRestaurants(dayOfWeek, localTime)),
+                    names(store.getOpenRestaurants(dayOfWeek, localTime)));
+        }
+    }
+
+    @Test
+    public void snapshotRoundTrips() throws IOException {
+        final List<Restaurant> restaurants = new CSVRestaurantService().getAllRestaurants();
+        final Path file = Files.createTempFile("restaurants", ".snapshot");
+        try {
+            OffHeapRestaurantStore.of(restaurants).writeSnapshot(file);
+            final OffHeapRestaurantStore store = OffHeapRestaurantStore.map(file);
+
+            assertEquals(restaurants.size(), store.size());
+            assertEquals(1, store.getId(0));
+            assertEquals(restaurants.size(), store.getId(restaurants.size() - 1));
+            assertEquals(names(restaurants), names(store.getAllRestaurants()));
+            for (int i = 0; i < restaurants.size(); i++) {
+                assertEquals(restaurants.get(i).getOpenHoursMap().toString(), store.getOpenHoursMap(i).toString());
+            }
+            assertEquals(
+                    names(new CSVRestaurantService().getOpenRestaurants(DayOfWeek.SUNDAY, LocalTime.of(0, 20))),
+                    names(store.getOpenRestaurants(DayOfWeek.SUNDAY, LocalTime.of(0, 20)))
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void mapRejectsOtherFiles() throws IOException {
+        final Path file = Files.createTempFile("restaurants", ".snapshot");
+        try {
+            Files.write(file, ResourceLoader.readResourceAsString("rest_hours.csv").getBytes(StandardCharsets.UTF_8));
+            OffHeapRestaurantStore.map(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void storeBytesFailsBeyondTwoGigabytes() {
+        assertEquals(4 * Integer.BYTES + Integer.BYTES + 10 * (2 * Integer.BYTES + 14 * Short.BYTES) + 100, OffHeapRestaurantStore.storeBytes(10, 100));
+
+        for (final long[] countAndNameBytes : new long[][] { { Integer.MAX_VALUE / 36 + 1, 0 }, { 1, Integer.MAX_VALUE }, { Integer.MAX_VALUE, Integer.MAX_VALUE } }) {
+            try {
+                OffHeapRestaurantStore.storeBytes((int) countAndNameBytes[0], countAndNameBytes[1]);
+                fail("Expected a store of " + countAndNameBytes[0] + " restaurants and " + countAndNameBytes[1] + " bytes of names to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    private static List<String> names(final List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).collect(Collectors.toList());
+    }
+
+    private static Restaurant restaurant(final String name, final LocalTime startTime, final LocalTime endTime) {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        openHoursMap.put(DayOfWeek.FRIDAY, new Restaurant.OpenHours(startTime, endTime));
+        openHoursMap.put(DayOfWeek.SUNDAY, new Restaurant.OpenHours(startTime, endTime));
+        return new Restaurant(name, openHoursMap);
+    }
+}
@@ -0,0 +1,99 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static com.hologramsciences.OpenHoursSlots.SLOTS_PER_WEEK;
+import static junit.framework.TestCase.assertEquals;
+
+public class OpenHoursBitmapIndexTest {
+
+    @Test
+    public void matchesLinearScanForEverySlotOfTheWeek() throws IOException {
+        final List<Restaurant> restaurants = new ArrayList<>(new CSVRestaurantService().getAllRestaurants());
+        restaurants.add(restaurant("Short Overnight", LocalTime.of(23, 30), LocalTime.of(0, 45)));
+        restaurants.add(restaurant("Almost All Day", LocalTime.of(3, 1), LocalTime.of(3, 0)));
+        restaurants.add(restaurant("Midnight Start", LocalTime.MIDNIGHT, LocalTime.of(4, 0)));
+        restaurants.add(restaurant("Early Close", LocalTime.of(22, 0), LocalTime.of(5, 0)));
+        restaurants.add(restaurant("Last Minute", LocalTime.of(6, 0), LocalTime.of(23, 59)));
+
+        final OpenHoursBitmapIndex index = new OpenHoursBitmapIndex(restaurants);
+
+        for (int slot = 0; slot < SLOTS_PER_WEEK; slot++) {
+            final DayOfWeek dayOfWeek = OpenHoursSlots.dayOfWeekOfSlot(slot);
+            final LocalTime localTime = OpenHoursSlots.localTimeOfSlot(slot);
+
+            final List<Restaurant> expected = restaurants.stream()
+                    .filter(r -> CSVRestaurantService.isOpen(r, dayOfWeek, localTime))
+                    .collect(Collectors.toList());
+
+            assertEquals(dayOfWeek + " " + localTime, expected, index.getOpenRestaurants(dayOfWeek, localTime));
+        }
+    }
+
+    @Test
+    public void withRestaurantsMatchesARebuiltIndex() throws IOException {
+        final List<Restaurant> restaurants = new ArrayList<>(new CSVRestaurantService().getAllRestaurants());
+        final OpenHoursBitmapIndex original = new OpenHoursBitmapIndex(restaurants);
+        final List<Restaurant> originalRestaurants = new ArrayList<>(restaurants);
+
+        final Map<Integer, Restaurant> replacements = new LinkedHashMap<>();
+        replacements.put(0, restaurant("Short Overnight", LocalTime.of(23, 30), LocalTime.of(0, 45)));
+        replacements.put(7, restaurant("Midnight Start", LocalTime.MIDNIGHT, LocalTime.of(4, 0)));
+        replacements.put(restaurants.size() + 1, restaurant("Last Minute", LocalTime.of(6, 0), LocalTime.of(23, 59)));
+        replacements.put(restaurants.size(), restaurant("Early Close", LocalTime.of(22, 0), LocalTime.of(5, 0)));
+        restaurants.set(0, replacements.get(0));
+        restaurants.set(7, replacements.get(7));
+        restaurants.add(replacements.get(restaurants.size()));
+        restaurants.add(replacements.get(restaurants.size()));
+
+        final OpenHoursBitmapIndex updated = original.withRestaurants(replacements);
+        final OpenHoursBitmapIndex rebuilt = new OpenHoursBitmapIndex(restaurants);
+        final OpenHoursBitmapIndex rebuiltOriginal = new OpenHoursBitmapIndex(originalRestaurants);
+
+        assertEquals(restaurants.size(), updated.size());
+        for (int slot = 0; slot < SLOTS_PER_WEEK; slot++) {
+            assertEquals(OpenHoursSlots.localTimeOfSlot(slot).toString(), rebuilt.getOpenRestaurantsInSlot(slot), updated.getOpenRestaurantsInSlot(slot));
+            assertEquals(rebuiltOriginal.getOpenRestaurantsInSlot(slot), original.getOpenRestaurantsInSlot(slot));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withRestaurantsRejectsGapsAfterTheEnd() {
+        final OpenHoursBitmapIndex index = new OpenHoursBitmapIndex(new ArrayList<>());
+        index.withRestaurants(Collections.singletonMap(1, restaurant("Gap", LocalTime.of(9, 0), LocalTime.NOON)));
+    }
+
+    @Test
+    public void slotsDistinguishTheMinuteFromTheInsideOfTheMinute() {
+        final List<Restaurant> restaurants = new ArrayList<>();
+        restaurants.add(restaurant("Noon Close", LocalTime.of(9, 0), LocalTime.NOON));
+
+        final OpenHoursBitmapIndex index = new OpenHoursBitmapIndex(restaurants);
+
+        assertEquals(1, index.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.NOON).size());
+        assertEquals(0, index.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(12, 0, 1)).size());
+        assertEquals(0, index.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(8, 59, 59)).size());
+        assertEquals(1, index.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(11, 59, 59, 999_999_999)).size());
+    }
+
+    private static Restaurant restaurant(final String name, final LocalTime startTime, final LocalTime endTime) {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (dayOfWeek != DayOfWeek.WEDNESDAY) {
+                openHoursMap.put(dayOfWeek, new Restaurant.OpenHours(startTime, endTime));
+            }
+        }
+        return new Restaurant(name, openHoursMap);
+    }
+}
@@ -0,0 +1,116 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static com.hologramsciences.OpenHoursSlots.SLOTS_PER_WEEK;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class OpenHoursIntervalIndexTest {
+    private static final List<Restaurant> restaurants = new ArrayList<>();
+
+    static {
+        try {
+            restaurants.addAll(new CSVRestaurantService().getAllRestaurants());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        restaurants.add(everyDay("Overnight", LocalTime.of(18, 0), LocalTime.of(4, 0)));
+
+        final Map<DayOfWeek, Restaurant.OpenHours> weekendOnly = new EnumMap<>(DayOfWeek.class);
+        weekendOnly.put(DayOfWeek.SUNDAY, new Restaurant.OpenHours(LocalTime.of(20, 0), LocalTime.of(3, 0)));
+        weekendOnly.put(DayOfWeek.MONDAY, new Restaurant.OpenHours(LocalTime.of(8, 0), LocalTime.of(9, 0)));
+        restaurants.add(new Restaurant("Across The Week", weekendOnly));
+    }
+
+    private static final OpenHoursBitmapIndex bitmapIndex = new OpenHoursBitmapIndex(restaurants);
+    private static final OpenHoursIntervalIndex intervalIndex = new OpenHoursIntervalIndex(restaurants);
+
+    @Test
+    public void matchesPointQueriesOverRandomWindows() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 500; i++) {
+            final int firstSlot = random.nextInt(SLOTS_PER_WEEK);
+            final int length = i % 5 == 0 ? random.nextInt(SLOTS_PER_WEEK) : random.nextInt(600);
+            final int lastSlot = firstSlot + length;
+
+            final Set<Restaurant> anytime = new LinkedHashSet<>();
+            final Set<Restaurant> throughout = new LinkedHashSet<>(restaurants);
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                final List<Restaurant> open = bitmapIndex.getOpenRestaurantsInSlot(slot % SLOTS_PER_WEEK);
+                anytime.addAll(open);
+                throughout.retainAll(open);
+            }
+
+            assertEquals(inListOrder(anytime), intervalIndex.getRestaurantsOpenAnytimeInSlots(firstSlot, lastSlot));
+            assertEquals(inListOrder(throughout), intervalIndex.getRestaurantsOpenThroughoutSlots(firstSlot, lastSlot));
+        }
+    }
+
+    @Test
+    public void windowsCrossingTheEndOfTheWeek() {
+        final LocalDateTime sundayNight = LocalDateTime.of(LocalDate.of(2020, 1, 19), LocalTime.of(23, 0));
+        final LocalDateTime mondayMidnight = LocalDateTime.of(LocalDate.of(2020, 1, 20), LocalTime.MIDNIGHT);
+
+        final Set<String> anytime = names(intervalIndex.getRestaurantsOpenAnytimeBetween(sundayNight, mondayMidnight.plusMinutes(30)));
+        assertTrue(anytime.contains("The Cheesecake Factory"));
+        assertTrue(anytime.contains("Across The Week"));
+
+        final Set<String> throughout = names(intervalIndex.getRestaurantsOpenThroughout(mondayMidnight, mondayMidnight.plusHours(1)));
+        final Set<String> expectedNames = new HashSet<>(Arrays.asList("Thai Stick Restaurant", "Marrakech Moroccan Restaurant", "Tim's Nighttime Banana Stand", "Overnight", "Across The Week"));
+        assertEquals(expectedNames, throughout);
+    }
+
+    @Test
+    public void windowsOfAWeekOrLonger() {
+        final LocalDateTime from = LocalDateTime.of(LocalDate.of(2020, 1, 15), LocalTime.NOON);
+
+        final Set<Restaurant> everOpen = new LinkedHashSet<>();
+        for (int slot = 0; slot < SLOTS_PER_WEEK; slot++) {
+            everOpen.addAll(bitmapIndex.getOpenRestaurantsInSlot(slot));
+        }
+
+        assertEquals(inListOrder(everOpen), intervalIndex.getRestaurantsOpenAnytimeBetween(from, from.plusDays(7)));
+        assertEquals(inListOrder(everOpen), intervalIndex.getRestaurantsOpenAnytimeBetween(from, from.plusDays(30)));
+        assertTrue(intervalIndex.getRestaurantsOpenThroughout(from, from.plusDays(7)).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowsMustNotEndBeforeTheyStart() {
+        final LocalDateTime from = LocalDateTime.of(LocalDate.of(2020, 1, 15), LocalTime.NOON);
+        intervalIndex.getRestaurantsOpenAnytimeBetween(from, from.minusMinutes(1));
+    }
+
+    private static List<Restaurant> inListOrder(final Set<Restaurant> found) {
+        return restaurants.stream().filter(found::contains).collect(Collectors.toList());
+    }
+
+    private static Set<String> names(final List<Restaurant> restaurantList) {
+        return restaurantList.stream().map(Restaurant::getName).collect(Collectors.toSet());
+    }
+
+    private static Restaurant everyDay(final String name, final LocalTime startTime, final LocalTime endTime) {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = new EnumMap<>(DayOfWeek.class);
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            openHoursMap.put(dayOfWeek, new Restaurant.OpenHours(startTime, endTime));
+        }
+        return new Restaurant(name, openHoursMap);
+    }
+}
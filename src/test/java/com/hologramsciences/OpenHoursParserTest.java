@@ -0,0 +1,141 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.StringTokenizer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+public class OpenHoursParserTest {
+
+    @Test
+    public void matchesTokenizerParserOnRestHours() throws IOException {
+        final OpenHoursParser.PackedOpenHours packed = new OpenHoursParser.PackedOpenHours();
+
+        for (final CSVRecord record : CSVFormat.RFC4180.parse(new StringReader(ResourceLoader.readResourceAsString("rest_hours.csv")))) {
+            if (record.size() < 2) {
+                continue;
+            }
+            final String openHoursString = record.get(1);
+            final Map<DayOfWeek, Restaurant.OpenHours> expected;
+            try {
+                expected = tokenizerParseOpenHour(openHoursString);
+            } catch (UnsupportedOperationException e) {
+                assertFalse(openHoursString, CSVRestaurantService.parse(record).isDefined());
+                continue;
+            }
+            assertEquals(openHoursString, expected.toString(), OpenHoursParser.parseOpenHoursMap(openHoursString).toString());
+
+            OpenHoursParser.parse(openHoursString, packed);
+            for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                final Restaurant.OpenHours openHours = expected.get(dayOfWeek);
+                assertEquals(openHoursString, openHours != null, packed.isOpen(dayOfWeek));
+                if (openHours != null) {
+                    assertEquals(openHours.getStartTime(), OpenHoursParser.localTimeOf(packed.getStartMinuteOfDay(dayOfWeek)));
+                    assertEquals(openHours.getEndTime(), OpenHoursParser.localTimeOf(packed.getEndMinuteOfDay(dayOfWeek)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void daysOfAGroupShareOneOpenHours() {
+        final Map<DayOfWeek, Restaurant.OpenHours> openHoursMap = OpenHoursParser.parseOpenHoursMap("Mon,Tue,Wed|11:00-22:00;Sat|10:00-02:00");
+
+        assertSame(openHoursMap.get(DayOfWeek.MONDAY), openHoursMap.get(DayOfWeek.WEDNESDAY));
+        assertEquals(LocalTime.of(10, 0), openHoursMap.get(DayOfWeek.SATURDAY).getStartTime());
+        assertEquals(LocalTime.of(2, 0), openHoursMap.get(DayOfWeek.SATURDAY).getEndTime());
+        assertEquals(4, openHoursMap.size());
+    }
+
+    @Test
+    public void laterGroupsOverrideEarlierOnes() {
+        final OpenHoursParser.PackedOpenHours packed = new OpenHoursParser.PackedOpenHours();
+        OpenHoursParser.parse("Mon,Tue|11:00-22:00;Tue|12:00-13:00", packed);
+
+        assertEquals(11 * 60, packed.getStartMinuteOfDay(DayOfWeek.MONDAY));
+        assertEquals(12 * 60, packed.getStartMinuteOfDay(DayOfWeek.TUESDAY));
+        assertEquals(13 * 60, packed.getEndMinuteOfDay(DayOfWeek.TUESDAY));
+        assertFalse(packed.isOpen(DayOfWeek.SUNDAY));
+
+        OpenHoursParser.parse("Sun|00:00-23:59", packed);
+        assertFalse(packed.isOpen(DayOfWeek.MONDAY));
+        assertTrue(packed.isOpen(DayOfWeek.SUNDAY));
+        assertEquals(23 * 60 + 59, packed.getEndMinuteOfDay(DayOfWeek.SUNDAY));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sameStartAndEndIsRejected() {
+        OpenHoursParser.parseOpenHoursMap("Mon|11:00-22:00;Tue|11:00-11:00");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sameStartAndEndIsRejectedBeforeUnknownDays() {
+        OpenHoursParser.parseOpenHoursMap("Xyz|11:00-11:00");
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void unknownDayIsRejected() {
+        OpenHoursParser.parseOpenHoursMap("Someday|10:00-12:00");
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void missingTimeIsRejected() {
+        OpenHoursParser.parseOpenHoursMap("Mon,Tue");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void singleDigitHourIsRejected() {
+        OpenHoursParser.parseOpenHoursMap("Mon|11:00-1:00");
+    }
+
+    @Test
+    public void parseRejectsLikeBefore() {
+        assertFalse(CSVRestaurantService.parse(record("\"Same\",\"Mon|11:00-11:00\"")).isDefined());
+        assertFalse(CSVRestaurantService.parse(record("\"Same\",\"Xyz|11:00-11:00\"")).isDefined());
+        assertTrue(CSVRestaurantService.parse(record("\"Fine\",\"Mon|11:00-12:00\"")).isDefined());
+    }
+
+    private static CSVRecord record(final String line) {
+        try {
+            return CSVFormat.RFC4180.parse(new StringReader(line)).getRecords().get(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     *  The StringTokenizer / LocalTime.parse implementation OpenHoursParser replaced
+     */
+    private static Map<DayOfWeek, Restaurant.OpenHours> tokenizerParseOpenHour(final String openHoursString) {
+        final Map<DayOfWeek, Restaurant.OpenHours> restaurantTimings = new EnumMap<>(DayOfWeek.class);
+        final StringTokenizer tokenizer = new StringTokenizer(openHoursString, ";");
+        while (tokenizer.hasMoreTokens()) {
+            final StringTokenizer perDayTime = new StringTokenizer(tokenizer.nextToken(), "|");
+            final StringTokenizer days = new StringTokenizer(perDayTime.nextToken(), ",");
+            final StringTokenizer timing = new StringTokenizer(perDayTime.nextToken(), "-");
+            final String startTime = timing.nextToken();
+            final String endTime = timing.nextToken();
+            if (startTime.equals(endTime)) {
+                throw new UnsupportedOperationException("Start time and end time are same");
+            }
+            while (days.hasMoreTokens()) {
+                restaurantTimings.put(CSVRestaurantService.getDayOfWeek(days.nextToken()).get(), new Restaurant.OpenHours(LocalTime.parse(startTime), LocalTime.parse(endTime)));
+            }
+        }
+        return restaurantTimings;
+    }
+}
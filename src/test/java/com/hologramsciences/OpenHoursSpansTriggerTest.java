@@ -0,0 +1,82 @@
+package com.hologramsciences;
+
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+
+public class OpenHoursSpansTriggerTest {
+
+    @Test
+    public void crossMidnightHoursAreSplitOnTheFollowingDay() {
+        assertEquals(Arrays.asList("690-1260"), spans(DayOfWeek.MONDAY, 690, 1260));
+        assertEquals(Arrays.asList("1440-1559", "2520-2879"), spans(DayOfWeek.MONDAY, 1080, 120));
+        assertEquals(Arrays.asList("0-59", "1380-1439"), spans(DayOfWeek.SUNDAY, 1380, 60));
+        assertEquals(Collections.emptyList(), spans(DayOfWeek.FRIDAY, 660, 0));
+    }
+
+    @Test
+    public void spansFollowInsertsUpdatesAndDeletes() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:open_hours_spans;DB_CLOSE_DELAY=-1", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+            sqlRestaurantService.initializeSchema();
+
+            sqlRestaurantService.runOnStatement(statement -> {
+                statement.execute("insert into restaurants (id, name) values (1, 'Late Night')");
+                statement.execute("insert into open_hours (id, restaurant_id, day_of_week, start_time_minute_of_day, end_time_minute_of_day) values (1, 1, 'SATURDAY', 1200, 180)");
+            });
+            assertEquals(Arrays.asList("7 8640-8819", "7 9840-10079"), storedSpans(sqlRestaurantService));
+
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("update open_hours set day_of_week = 'TUESDAY', end_time_minute_of_day = 1380 where id = 1"));
+            assertEquals(Arrays.asList("2 2640-2820"), storedSpans(sqlRestaurantService));
+
+            sqlRestaurantService.runOnStatement(statement -> statement.execute("delete from open_hours where id = 1"));
+            assertEquals(Collections.emptyList(), storedSpans(sqlRestaurantService));
+        }
+    }
+
+    @Test
+    public void initializeSchemaAddsSpansForExistingOpenHours() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:open_hours_spans_migration;DB_CLOSE_DELAY=-1", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+
+            // open_hours as it was before open_hours_spans
+            sqlRestaurantService.runOnStatement(statement -> {
+                statement.execute("create table restaurants (id bigserial not null primary key, name text)");
+                statement.execute("create table open_hours (id bigserial not null primary key, restaurant_id bigint not null references restaurants (id), day_of_week text not null, start_time_minute_of_day integer not null, end_time_minute_of_day integer not null)");
+                statement.execute("insert into restaurants (id, name) values (1, 'Lunch Place')");
+                statement.execute("insert into open_hours (restaurant_id, day_of_week, start_time_minute_of_day, end_time_minute_of_day) values (1, 'MONDAY', 690, 900)");
+            });
+
+            sqlRestaurantService.initializeSchema();
+            sqlRestaurantService.initializeSchema();
+
+            assertEquals(Arrays.asList("1 690-900"), storedSpans(sqlRestaurantService));
+        }
+    }
+
+    private static List<String> spans(final DayOfWeek dayOfWeek, final int startMinuteOfDay, final int endMinuteOfDay) {
+        return OpenHoursSpansTrigger.spansOf(dayOfWeek, startMinuteOfDay, endMinuteOfDay).stream()
+                .map(span -> span.getStartMinuteOfWeek() + "-" + span.getEndMinuteOfWeek())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> storedSpans(final SQLRestaurantService sqlRestaurantService) throws Exception {
+        final List<String> spans = new ArrayList<>();
+        sqlRestaurantService.runOnStatement(statement -> {
+            try (final ResultSet rs = statement.executeQuery("select day_of_week_number, start_minute_of_week, end_minute_of_week from open_hours_spans order by start_minute_of_week")) {
+                while (rs.next()) {
+                    spans.add(rs.getInt(1) + " " + rs.getInt(2) + "-" + rs.getInt(3));
+                }
+            }
+        });
+        return spans;
+    }
+}
@@ -0,0 +1,142 @@
+package com.hologramsciences;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.hologramsciences.sql.RestaurantRecord;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+public class OpenRestaurantsCacheTest {
+
+    @Test
+    public void answersLikeTheServiceAndCountsHits() throws Exception {
+        final CSVRestaurantService csvRestaurantService = new CSVRestaurantService();
+        final OpenRestaurantsCache<Restaurant, RuntimeException> cache = OpenRestaurantsCache.of(csvRestaurantService);
+
+        for (int i = 0; i < 2; i++) {
+            for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                for (final LocalTime localTime : Arrays.asList(LocalTime.MIDNIGHT, LocalTime.of(2, 0), LocalTime.of(12, 30), LocalTime.of(12, 30, 15))) {
+                    assertEquals(csvRestaurantService.getOpenRestaurants(dayOfWeek, localTime), cache.getOpenRestaurants(dayOfWeek, localTime));
+                }
+            }
+        }
+
+        assertEquals(28, cache.size());
+        assertEquals(28, cache.getMisses());
+        assertEquals(28, cache.getHits());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    public void sqlResultsAreKeyedByMinuteAndDroppedWhenTheDataChanges() throws Exception {
+        final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService();
+        sqlRestaurantService.initializeDatabase();
+        final OpenRestaurantsCache<RestaurantRecord, SQLException> cache = OpenRestaurantsCache.of(sqlRestaurantService);
+
+        final List<RestaurantRecord> first = cache.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.of(2, 0));
+        assertSame(first, cache.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.of(2, 0, 30)));
+        assertEquals(1, cache.getHits());
+
+        sqlRestaurantService.dataChanged();
+        final List<RestaurantRecord> reloaded = cache.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.of(2, 0));
+        assertTrue(first != reloaded);
+        assertEquals(first.size(), reloaded.size());
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final OpenRestaurantsCache<Integer, RuntimeException> cache = new OpenRestaurantsCache<>(
+                (dayOfWeek, localTime) -> Collections.singletonList(loads.incrementAndGet()),
+                OpenRestaurantsCache::minuteOfWeek, () -> 0L, 2
+        );
+
+        cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(10, 0));
+        cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(11, 0));
+        cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(10, 0));
+        cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(12, 0));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(Collections.singletonList(1), cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(10, 0)));
+        assertEquals(Collections.singletonList(4), cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.of(11, 0)));
+    }
+
+    @Test
+    public void concurrentMissesShareOneLoad() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        final OpenRestaurantsCache<Integer, RuntimeException> cache = new OpenRestaurantsCache<>(
+                (dayOfWeek, localTime) -> {
+                    loads.incrementAndGet();
+                    loadStarted.countDown();
+                    try {
+                        releaseLoad.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return Collections.singletonList(42);
+                },
+                OpenRestaurantsCache::minuteOfWeek, () -> 0L, 16
+        );
+
+        final int threads = 8;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<List<Integer>>> results = new ArrayList<>();
+            results.add(executorService.submit(() -> cache.getOpenRestaurants(DayOfWeek.FRIDAY, LocalTime.NOON)));
+            assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executorService.submit(() -> cache.getOpenRestaurants(DayOfWeek.FRIDAY, LocalTime.NOON)));
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cache.getSharedLoads() < threads - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            releaseLoad.countDown();
+
+            for (final Future<List<Integer>> result : results) {
+                assertEquals(Collections.singletonList(42), result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(threads - 1, cache.getSharedLoads());
+    }
+
+    @Test
+    public void loadsOverlappingADataChangeAreNotCached() throws Exception {
+        final AtomicLong version = new AtomicLong();
+        final OpenRestaurantsCache<Long, RuntimeException> cache = new OpenRestaurantsCache<>(
+                (dayOfWeek, localTime) -> Collections.singletonList(version.getAndIncrement()),
+                OpenRestaurantsCache::minuteOfWeek, version::get, 16
+        );
+
+        assertEquals(Collections.singletonList(0L), cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.NOON));
+        assertEquals(0, cache.size());
+        assertEquals(Collections.singletonList(1L), cache.getOpenRestaurants(DayOfWeek.MONDAY, LocalTime.NOON));
+    }
+}
@@ -0,0 +1,70 @@
+package com.hologramsciences;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+
+public class ParallelCSVLoaderTest {
+    private static final List<String> LINES = Arrays.asList(
+            "\"Kushi Tsuru\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:30-21:00\"",
+            "\"Bob's, \"\"The\"\" Place\",\"Mon,Tue|11:00-22:00;Fri,Sat|11:00-00:00\"",
+            "\"Same Start And End\",\"Mon|11:00-11:00\"",
+            "\"Two",
+            "Lines\",\"Sat,Sun|10:00-02:00\"",
+            "\"Not A Day\",\"Someday|10:00-12:00\"",
+            "\"Thai Stick Restaurant\",\"Mon,Tue,Wed,Thu,Fri,Sat,Sun|11:00-1:00\"",
+            "\"Last\",\"Sun|10:00-13:00\""
+    );
+
+    @Test
+    public void loadIsIndependentOfChunkSize() throws IOException {
+        final Path file = Files.createTempFile("rest_hours", ".csv");
+        try {
+            Files.write(file, LINES, StandardCharsets.UTF_8);
+
+            final List<String> expectedNames = Arrays.asList("Kushi Tsuru", "Bob's, \"The\" Place", "Two\nLines", "Last");
+
+            final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+            try {
+                for (int chunkSize = 1; chunkSize <= Files.size(file) + 1; chunkSize++) {
+                    final ParallelCSVLoader.Result<Restaurant> result = new ParallelCSVLoader(forkJoinPool, chunkSize).load(file, CSVRestaurantService::parse);
+
+                    assertEquals("chunkSize " + chunkSize, expectedNames, result.getRecords().stream().map(Restaurant::getName).collect(Collectors.toList()));
+                    assertEquals("chunkSize " + chunkSize, Arrays.asList(3L, 6L, 7L), result.getRejections().stream().map(ParallelCSVLoader.Rejection::getLineNumber).collect(Collectors.toList()));
+                    assertEquals(7, result.getStatistics().getRecordCount());
+                    assertEquals(4, result.getStatistics().getParsedCount());
+                }
+            } finally {
+                forkJoinPool.shutdown();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void loadsRestHoursInOrder() throws IOException {
+        final Path file = Files.createTempFile("rest_hours", ".csv");
+        try {
+            Files.write(file, ResourceLoader.readResourceAsString("rest_hours.csv").getBytes(StandardCharsets.UTF_8));
+
+            final ParallelCSVLoader.Result<Restaurant> result = new ParallelCSVLoader(ForkJoinPool.commonPool(), 256).load(file, CSVRestaurantService::parse);
+
+            assertEquals(
+                    new CSVRestaurantService().getAllRestaurants().stream().map(Restaurant::getName).collect(Collectors.toList()),
+                    result.getRecords().stream().map(Restaurant::getName).collect(Collectors.toList())
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.hologramsciences;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.hologramsciences.QueryExecutorConfig.ThreadMode;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public class QueryExecutorTest {
+
+    @Test
+    public void runsUpToParallelismQueriesAtATime() throws Exception {
+        assertRunsUpToParallelismQueriesAtATime(ThreadMode.POOLED);
+    }
+
+    @Test
+    public void threadPerQueryRunsUpToParallelismQueriesAtATime() throws Exception {
+        assertRunsUpToParallelismQueriesAtATime(ThreadMode.PLATFORM_PER_QUERY);
+    }
+
+    @Test
+    public void virtualThreadPerQueryRunsUpToParallelismQueriesAtATime() throws Exception {
+        Assume.assumeTrue(VirtualThreads.isAvailable());
+        assertRunsUpToParallelismQueriesAtATime(ThreadMode.VIRTUAL_PER_QUERY);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void virtualThreadsNeedJava21() {
+        Assume.assumeFalse(VirtualThreads.isAvailable());
+        new QueryExecutor(new QueryExecutorConfig().withThreadMode(ThreadMode.VIRTUAL_PER_QUERY));
+    }
+
+    private static void assertRunsUpToParallelismQueriesAtATime(final ThreadMode threadMode) throws Exception {
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withThreadMode(threadMode).withParallelism(3))) {
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger maximumRunning = new AtomicInteger();
+
+            final List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                final int query = i;
+                results.add(queryExecutor.submit(() -> {
+                    maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return query;
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(Integer.valueOf(i), results.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(3, maximumRunning.get());
+        }
+    }
+
+    @Test
+    public void failuresCompleteTheFuture() throws Exception {
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig())) {
+            final CompletableFuture<Object> result = queryExecutor.submit(() -> {
+                throw new SQLException("broken");
+            });
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+            }
+        }
+    }
+
+    @Test
+    public void timedOutQueriesAreInterrupted() throws Exception {
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withTimeout(Duration.ofMillis(50)))) {
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            final CompletableFuture<Object> result = queryExecutor.submit(() -> {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+            assertEquals(1, queryExecutor.getTimedOutQueries());
+        }
+    }
+
+    @Test
+    public void cancelledQueriesLeaveTheQueue() throws Exception {
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withParallelism(1).withQueueCapacity(1))) {
+            final CountDownLatch release = new CountDownLatch(1);
+            final CompletableFuture<Object> blocking = queryExecutor.submit(() -> {
+                release.await();
+                return null;
+            });
+
+            final AtomicInteger runs = new AtomicInteger();
+            final CompletableFuture<Integer> queued = queryExecutor.submit(runs::incrementAndGet);
+            final CompletableFuture<Integer> rejected = queryExecutor.submit(runs::incrementAndGet);
+            try {
+                rejected.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+
+            queued.cancel(true);
+            assertEquals(0, queryExecutor.getQueuedQueries());
+
+            final CompletableFuture<Integer> next = queryExecutor.submit(runs::incrementAndGet);
+            release.countDown();
+            blocking.get(10, TimeUnit.SECONDS);
+
+            assertEquals(Integer.valueOf(1), next.get(10, TimeUnit.SECONDS));
+            try {
+                queued.get();
+                fail();
+            } catch (CancellationException expected) {
+            }
+            assertEquals(1, queryExecutor.getRejectedQueries());
+            assertEquals(1, queryExecutor.getCancelledQueries());
+        }
+    }
+
+    @Test
+    public void threadPerQueryRejectsBeyondQueueCapacity() throws Exception {
+        try (final QueryExecutor queryExecutor = new QueryExecutor(new QueryExecutorConfig().withThreadMode(ThreadMode.PLATFORM_PER_QUERY).withParallelism(1).withQueueCapacity(1))) {
+            final CountDownLatch release = new CountDownLatch(1);
+            final CompletableFuture<Object> blocking = queryExecutor.submit(() -> {
+                release.await();
+                return null;
+            });
+
+            final AtomicInteger runs = new AtomicInteger();
+            final CompletableFuture<Integer> waiting = queryExecutor.submit(runs::incrementAndGet);
+            final CompletableFuture<Integer> rejected = queryExecutor.submit(runs::incrementAndGet);
+            try {
+                rejected.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+
+            waiting.cancel(true);
+            final CompletableFuture<Integer> next = queryExecutor.submit(runs::incrementAndGet);
+            release.countDown();
+            blocking.get(10, TimeUnit.SECONDS);
+
+            assertEquals(Integer.valueOf(1), next.get(10, TimeUnit.SECONDS));
+            assertEquals(1, queryExecutor.getRejectedQueries());
+            assertEquals(1, queryExecutor.getCancelledQueries());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.hologramsciences;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import com.hologramsciences.sql.RestaurantRecord;
+
+import static java.time.temporal.ChronoField.MINUTE_OF_DAY;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public class RestaurantBulkLoaderTest {
+
+    @Test
+    public void loadInsertsRestaurantsAndOpenHoursInChunks() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:bulk_load;DB_CLOSE_DELAY=-1", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+            sqlRestaurantService.initializeSchema();
+
+            final List<Restaurant> restaurants = new CSVRestaurantService().getAllRestaurants();
+            final List<Long> ids = new RestaurantBulkLoader(sqlRestaurantService, 7).load(restaurants.stream());
+
+            assertEquals(LongStream.rangeClosed(1, restaurants.size()).boxed().collect(Collectors.toList()), ids);
+            assertLoaded(sqlRestaurantService, restaurants, ids);
+        }
+    }
+
+    @Test
+    public void loadViaCsvContinuesAfterExistingIds() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:bulk_load_csv;DB_CLOSE_DELAY=-1", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+            sqlRestaurantService.initializeSchema();
+
+            final List<Restaurant> restaurants = new CSVRestaurantService().getAllRestaurants();
+            final RestaurantBulkLoader loader = new RestaurantBulkLoader(sqlRestaurantService);
+
+            final List<Long> firstIds = loader.load(restaurants.subList(0, 3));
+            final List<Long> csvIds = loader.loadViaCsv(restaurants.subList(3, restaurants.size()));
+
+            assertEquals(Arrays.asList(1L, 2L, 3L), firstIds);
+            assertEquals(LongStream.rangeClosed(4, restaurants.size()).boxed().collect(Collectors.toList()), csvIds);
+
+            final List<Long> ids = new ArrayList<>(firstIds);
+            ids.addAll(csvIds);
+            assertLoaded(sqlRestaurantService, restaurants, ids);
+
+            assertEquals(Arrays.asList(restaurants.size() + 1L), loader.load(restaurants.subList(0, 1)));
+        }
+    }
+
+    @Test
+    public void loadViaCsvFailsInsteadOfOverwritingARowInItsRange() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:bulk_load_csv_collision;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=200", "sa", "sa"))) {
+            final SQLRestaurantService sqlRestaurantService = new SQLRestaurantService(connectionPool);
+            sqlRestaurantService.initializeSchema();
+            final List<Restaurant> restaurants = new CSVRestaurantService().getAllRestaurants();
+
+            // not yet committed, so the loader does not see it when it picks its first id
+            try (final Connection connection = connectionPool.getConnection()) {
+                connection.setAutoCommit(false);
+                try (final Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("insert into restaurants (id, name) values (2, 'Concurrent')");
+                }
+                try {
+                    new RestaurantBulkLoader(sqlRestaurantService).loadViaCsv(restaurants.subList(0, 3));
+                    fail("Expected a primary key violation");
+                } catch (SQLException e) {
+                    // expected
+                }
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+
+            sqlRestaurantService.runOnStatement(statement -> {
+                try (final ResultSet rs = statement.executeQuery("select id, name from restaurants")) {
+                    assertTrue(rs.next());
+                    assertEquals(2L, rs.getLong(1));
+                    assertEquals("Concurrent", rs.getString(2));
+                    assertFalse(rs.next());
+                }
+                try (final ResultSet rs = statement.executeQuery("select count(*) from open_hours")) {
+                    assertTrue(rs.next());
+                    assertEquals(0, rs.getInt(1));
+                }
+            });
+        }
+    }
+
+    private static void assertLoaded(final SQLRestaurantService sqlRestaurantService, final List<Restaurant> restaurants, final List<Long> ids) throws Exception {
+        assertEquals(
+                restaurants.stream().map(Restaurant::getName).collect(Collectors.toList()),
+                sqlRestaurantService.getAllRestaurantRecordsWithIds(ids).stream().map(RestaurantRecord::getName).collect(Collectors.toList())
+        );
+
+        final Set<String> expectedOpenHours = new HashSet<>();
+        for (int i = 0; i < restaurants.size(); i++) {
+            final long id = ids.get(i);
+            restaurants.get(i).getOpenHoursMap().forEach((dayOfWeek, openHours) -> expectedOpenHours.add(
+                    id + " " + dayOfWeek + " " + openHours.getStartTime().get(MINUTE_OF_DAY) + " " + openHours.getEndTime().get(MINUTE_OF_DAY)
+            ));
+        }
+
+        final Set<String> actualOpenHours = new HashSet<>();
+        sqlRestaurantService.runOnStatement(statement -> {
+            try (final ResultSet rs = statement.executeQuery("select restaurant_id, day_of_week, start_time_minute_of_day, end_time_minute_of_day from open_hours")) {
+                while (rs.next()) {
+                    actualOpenHours.add(rs.getLong(1) + " " + rs.getString(2) + " " + rs.getInt(3) + " " + rs.getInt(4));
+                }
+            }
+        });
+        assertEquals(expectedOpenHours, actualOpenHours);
+    }
+}
@@ -1,22 +1,45 @@
 package com.hologramsciences;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.hologramsciences.sql.RestaurantRecord;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
 public class SQLRestaurantServiceTest {
     private static SQLRestaurantService sqlRestaurantService = new SQLRestaurantService();
 
+    // getOpenRestaurants before open_hours_spans, a full scan of open_hours
+    private static final String OPEN_HOURS_QUERY = String.join("\n"
+            , "select distinct r.id, r.name from restaurants r"
+            , " inner join open_hours oh on oh.restaurant_id = r.id"
+            , " where (start_time_minute_of_day <= ? and end_time_minute_of_day >= ? and day_of_week = ?)"
+            , " or ((start_time_minute_of_day != 0 and end_time_minute_of_day != 0)"
+            , " and start_time_minute_of_day - end_time_minute_of_day > 0 and day_of_week = ? "
+            , " and ((start_time_minute_of_day <= ? and end_time_minute_of_day < ?)"
+            , " or (start_time_minute_of_day > ? and end_time_minute_of_day > ?)))"
+    );
+
     @BeforeClass
     public static void initDB() throws Exception {
         sqlRestaurantService.initializeDatabase();
@@ -56,4 +79,214 @@ public class SQLRestaurantServiceTest {
         final Set<String> expectedNames = Arrays.asList("The Cheesecake Factory", "Shanghai China Restaurant").stream().collect(Collectors.toSet());
         assertTrue(names.equals(expectedNames));
     }
+
+    @Test
+    public void asyncQueriesAnswerLikeTheBlockingOnes() throws Exception {
+        final List<CompletableFuture<List<RestaurantRecord>>> results = new ArrayList<>();
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            results.add(sqlRestaurantService.getOpenRestaurantsAsync(dayOfWeek, LocalTime.MIDNIGHT));
+        }
+        final CompletableFuture<List<RestaurantRecord>> menuSize = sqlRestaurantService.getRestaurantsWithMenuOfSizeGreaterThanOrEqualToAsync(3);
+        final CompletableFuture<List<RestaurantRecord>> withIds = sqlRestaurantService.getAllRestaurantRecordsWithIdsAsync(Arrays.asList(28L, 29L));
+
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            assertEquals(names(sqlRestaurantService.getOpenRestaurants(dayOfWeek, LocalTime.MIDNIGHT)), names(results.get(dayOfWeek.ordinal()).get(10, TimeUnit.SECONDS)));
+        }
+        assertEquals(names(sqlRestaurantService.getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(3)), names(menuSize.get(10, TimeUnit.SECONDS)));
+        assertEquals(names(sqlRestaurantService.getAllRestaurantRecordsWithIds(Arrays.asList(28L, 29L))), names(withIds.get(10, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void getAllRestaurantRecordsWithIdsKeepsTheOrderOfTheIds() throws Exception {
+        final List<RestaurantRecord> restaurantRecords = sqlRestaurantService.getAllRestaurantRecordsWithIds(Arrays.asList(29L, 28L, 29L, -1L));
+        assertEquals(Arrays.asList(29L, 28L), ids(restaurantRecords));
+    }
+
+    @Test
+    public void getAllRestaurantRecordsWithIdsLooksUpLargeIdSetsInChunks() throws Exception {
+        final List<Long> ids = LongStream.rangeClosed(1, 100_000).map(i -> 100_001 - i).boxed().collect(Collectors.toList());
+        final List<Long> expectedIds = sqlRestaurantService.runFunctionOnConnection(connection -> {
+            try (
+                    final PreparedStatement preparedStatement = connection.prepareStatement("select id from restaurants order by id desc");
+                    final ResultSet rs = preparedStatement.executeQuery()
+            ) {
+                final List<Long> restaurantIds = new ArrayList<>();
+                while (rs.next()) {
+                    restaurantIds.add(rs.getLong(1));
+                }
+                return restaurantIds;
+            }
+        });
+
+        assertEquals(expectedIds, ids(sqlRestaurantService.getAllRestaurantRecordsWithIds(ids)));
+        assertEquals(expectedIds, ids(sqlRestaurantService.getAllRestaurantRecordsWithIdsAsync(ids).get(10, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void getAllRestaurantRecordsWithIdsIsAPrimaryKeyLookup() throws Exception {
+        final String plan = explain(SQLRestaurantService.RESTAURANTS_WITH_IDS_QUERY, (Object) new Long[] { 28L, 29L });
+
+        assertTrue(plan, plan.contains("/* PUBLIC.PRIMARY_KEY_B: ID IN("));
+        assertFalse(plan, plan.contains("tableScan"));
+    }
+
+    @Test
+    public void streamOpenRestaurantsMatchesGetOpenRestaurants() throws Exception {
+        for (final LocalTime localTime : Arrays.asList(LocalTime.MIDNIGHT, LocalTime.of(2, 0), LocalTime.NOON)) {
+            try (final Stream<RestaurantRecord> restaurantRecords = sqlRestaurantService.streamOpenRestaurants(DayOfWeek.SATURDAY, localTime, 2)) {
+                assertEquals(ids(sqlRestaurantService.getOpenRestaurants(DayOfWeek.SATURDAY, localTime)), restaurantRecords.map(RestaurantRecord::getId).collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    public void streamsDoNotLeaveTheirFetchSizeOnTheCachedStatement() throws Exception {
+        try (final ConnectionPool connectionPool = new ConnectionPool(new ConnectionPoolConfig(SQLRestaurantService.DEFAULT_URL, "sa", "sa").withMaximumSize(1))) {
+            final SQLRestaurantService singleConnectionService = new SQLRestaurantService(connectionPool);
+            final int defaultFetchSize = fetchSizeOf(connectionPool, SQLRestaurantService.OPEN_RESTAURANTS_QUERY);
+
+            try (final Stream<RestaurantRecord> restaurantRecords = singleConnectionService.streamOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.NOON, 2)) {
+                assertTrue(restaurantRecords.count() > 0);
+            }
+            assertFalse(singleConnectionService.getOpenRestaurants(DayOfWeek.SATURDAY, LocalTime.NOON).isEmpty());
+
+            assertEquals(defaultFetchSize, fetchSizeOf(connectionPool, SQLRestaurantService.OPEN_RESTAURANTS_QUERY));
+            assertEquals(1, connectionPool.getOpenConnections());
+        }
+    }
+
+    static int fetchSizeOf(final ConnectionPool connectionPool, final String sql) throws SQLException {
+        try (final Connection connection = connectionPool.getConnection();
+             final PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            return preparedStatement.getFetchSize();
+        }
+    }
+
+    @Test
+    public void streamAllRestaurantsHoldsAConnectionUntilClosed() throws Exception {
+        final ConnectionPool connectionPool = sqlRestaurantService.getConnectionPool();
+        final int activeConnections = connectionPool.getActiveConnections();
+
+        final List<Long> ids;
+        try (final Stream<RestaurantRecord> restaurantRecords = sqlRestaurantService.streamAllRestaurants(1)) {
+            assertEquals(activeConnections + 1, connectionPool.getActiveConnections());
+            ids = restaurantRecords.map(RestaurantRecord::getId).collect(Collectors.toList());
+        }
+        assertEquals(activeConnections, connectionPool.getActiveConnections());
+
+        assertFalse(ids.isEmpty());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+        assertEquals(ids, ids(sqlRestaurantService.getAllRestaurantRecordsWithIds(ids)));
+
+        try (final Stream<RestaurantRecord> restaurantRecords = sqlRestaurantService.streamAllRestaurants()) {
+            assertEquals(ids.get(0), restaurantRecords.findFirst().map(RestaurantRecord::getId).get());
+        }
+        assertEquals(activeConnections, connectionPool.getActiveConnections());
+    }
+
+    private static List<Long> ids(final List<RestaurantRecord> restaurantRecords) {
+        return restaurantRecords.stream().map(RestaurantRecord::getId).collect(Collectors.toList());
+    }
+
+    private static Set<String> names(final List<RestaurantRecord> restaurantRecords) {
+        return restaurantRecords.stream().map(RestaurantRecord::getName).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void getOpenRestaurantsIsAnIndexRangeScan() throws Exception {
+        final String plan = explain(SQLRestaurantService.OPEN_RESTAURANTS_QUERY, SQLRestaurantService.openRestaurantsParameters(DayOfWeek.SATURDAY, LocalTime.of(2, 0)));
+
+        assertIndexRangeScan(plan);
+    }
+
+    @Test
+    public void getRestaurantsWithMenuOfSizeIsAnIndexRangeScan() throws Exception {
+        final String plan = explain(SQLRestaurantService.MENU_SIZE_QUERY, 3);
+
+        assertTrue(plan, plan.contains("/* PUBLIC.MENU_ITEM_COUNTS_COUNT: MENU_ITEM_COUNT >= ?1 */"));
+        assertTrue(plan, plan.contains("/* PUBLIC.PRIMARY_KEY_B: ID = C.RESTAURANT_ID */"));
+        assertFalse(plan, plan.contains("tableScan"));
+    }
+
+    @Test
+    public void getRestaurantsWithMenuOfSizeMatchesGroupByOverMenuItems() throws Exception {
+        for (int menuSize = -1; menuSize <= 4; menuSize++) {
+            final Integer minimum = menuSize;
+            final Set<Long> expectedIds = sqlRestaurantService.runFunctionOnConnection(connection -> {
+                try (final PreparedStatement preparedStatement = connection.prepareStatement("select restaurant_id from menu_items group by restaurant_id having count(1) >= ?")) {
+                    preparedStatement.setInt(1, minimum);
+                    final Set<Long> ids = new HashSet<>();
+                    try (final ResultSet rs = preparedStatement.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong(1));
+                        }
+                    }
+                    return ids;
+                }
+            });
+
+            final Set<Long> ids = sqlRestaurantService.getRestaurantsWithMenuOfSizeGreaterThanOrEqualTo(menuSize).stream().map(RestaurantRecord::getId).collect(Collectors.toSet());
+            assertEquals("menuSize " + menuSize, expectedIds, ids);
+        }
+    }
+
+    private static String explain(final String query, final Object... parameters) throws Exception {
+        return sqlRestaurantService.runFunctionOnConnection(connection -> {
+            try (final PreparedStatement preparedStatement = connection.prepareStatement("explain " + query)) {
+                for (int i = 1; i <= parameters.length; i++) {
+                    preparedStatement.setObject(i, parameters[i - 1]);
+                }
+                try (final ResultSet rs = preparedStatement.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     *  Both bounds of start_minute_of_week are index conditions, and restaurants are joined by primary key
+     */
+    static void assertIndexRangeScan(final String plan) {
+        final int indexCondition = plan.indexOf("/* PUBLIC.OPEN_HOURS_SPANS_START_END: ");
+        assertTrue(plan, indexCondition >= 0);
+
+        final String indexConditions = plan.substring(indexCondition, plan.indexOf("*/", indexCondition));
+        assertTrue(plan, indexConditions.contains("START_MINUTE_OF_WEEK >= "));
+        assertTrue(plan, indexConditions.contains("START_MINUTE_OF_WEEK <= "));
+
+        assertTrue(plan, plan.contains("/* PUBLIC.PRIMARY_KEY_B: ID = "));
+        assertFalse(plan, plan.contains("tableScan"));
+    }
+
+    @Test
+    public void getOpenRestaurantsMatchesOpenHoursForEveryMinuteOfTheWeek() throws Exception {
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            for (int minuteOfDay = 0; minuteOfDay < 24 * 60; minuteOfDay++) {
+                final LocalTime localTime = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+                final String day = dayOfWeek.toString();
+                final String previousDay = dayOfWeek.minus(1).toString();
+                final Integer m = minuteOfDay;
+
+                final Set<Long> expectedIds = sqlRestaurantService.runFunctionOnConnection(connection -> {
+                    try (final PreparedStatement preparedStatement = connection.prepareStatement(OPEN_HOURS_QUERY)) {
+                        final Object[] parameters = { m, m, day, previousDay, m, m, m, m };
+                        for (int i = 1; i <= parameters.length; i++) {
+                            preparedStatement.setObject(i, parameters[i - 1]);
+                        }
+                        final Set<Long> ids = new HashSet<>();
+                        try (final ResultSet rs = preparedStatement.executeQuery()) {
+                            while (rs.next()) {
+                                ids.add(rs.getLong("id"));
+                            }
+                        }
+                        return ids;
+                    }
+                });
+
+                final Set<Long> ids = sqlRestaurantService.getOpenRestaurants(dayOfWeek, localTime).stream().map(RestaurantRecord::getId).collect(Collectors.toSet());
+                assertEquals(dayOfWeek + " " + localTime, expectedIds, ids);
+            }
+        }
+    }
 }